@@ -0,0 +1,56 @@
+package com.learnforge.config;
+
+import com.learnforge.util.StripedExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ArenaConfig {
+
+    /**
+     * Per-room lanes: every update to a room runs on the lane its id hashes to.
+     */
+    @Bean(destroyMethod = "close")
+    public StripedExecutor arenaRoomExecutor(@Value("${arena.rooms.stripes:0}") int stripes) {
+        int stripeCount = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 2;
+        return new StripedExecutor("arena-room", stripeCount);
+    }
+
+    /**
+     * Shared timer for round deadlines. Timers only hand work back to a room lane,
+     * so a couple of threads cover any number of rooms.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService arenaScheduler(@Value("${arena.scheduler.threads:2}") int threads) {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "arena-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Rounds that finish early cancel their deadline; drop those from the queue right away
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Loads seen-question sets for users missing from the cache, off the request
+     * path. The queue is bounded and rejects past it, so a flood of unknown ids
+     * costs a bounded number of reads.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService seenQuestionLoader(@Value("${arena.seen.load-queue:1024}") int queueSize) {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "seen-question-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.learnforge.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class CatalogConfig {
+
+    /**
+     * Background thread for rebuilding catalog read models after writes, so the
+     * writing request does not wait on the rebuild.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService catalogRebuildExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -17,6 +17,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("*")
                 .allowCredentials(true)
-                .allowedHeaders("*");
+                .allowedHeaders("*")
+                .exposedHeaders("ETag", "X-Next-Cursor");
     }
 }
@@ -0,0 +1,24 @@
+package com.learnforge.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ImportConfig {
+
+    /**
+     * Background thread for admin question imports. One at a time: imports write
+     * the same table and dedupe against each other's rows.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService questionImportExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "question-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.learnforge.config;
+
+import com.learnforge.service.QuestionImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+
+/**
+ * Seeds the question table from questions.json at startup. Unchanged questions
+ * cost nothing beyond the one hash query, so this is safe to run on every boot.
+ */
+@Component
+public class QuestionSeeder implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(QuestionSeeder.class);
+
+    private final QuestionImportService questionImportService;
+
+    public QuestionSeeder(QuestionImportService questionImportService) {
+        this.questionImportService = questionImportService;
+    }
+
+    @Override
+    public void run(String... args) {
+        ClassPathResource resource = new ClassPathResource("questions.json");
+        if (!resource.exists()) {
+            log.warn("questions.json not found on the classpath, skipping question seeding");
+            return;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            long start = System.currentTimeMillis();
+            int backfilled = questionImportService.backfillTextHashes();
+            if (backfilled > 0) {
+                log.info("Question seeding: backfilled text hashes for {} existing questions", backfilled);
+            }
+            QuestionImportService.Result result = questionImportService.importQuestions(in, new QuestionImportService.Listener() {
+                @Override
+                public void onRowError(int row, String message) {
+                    log.warn("questions.json row {}: {}", row, message);
+                }
+            });
+            log.info("Question seeding: {} read, {} added, {} updated, {} unchanged, {} skipped, {} invalid in {} ms",
+                    result.read(), result.inserted(), result.updated(), result.unchanged(), result.skipped(),
+                    result.failed(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to seed questions: {}", e.getMessage(), e);
+        }
+    }
+}
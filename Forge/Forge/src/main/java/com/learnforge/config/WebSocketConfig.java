@@ -1,6 +1,7 @@
 // src/main/java/com/example/Forge/config/WebSocketConfig.java
 package com.learnforge.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
@@ -9,9 +10,37 @@ import org.springframework.web.socket.config.annotation.*;
 @EnableWebSocketMessageBroker
 
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    // "simple" keeps subscriptions in this JVM; "relay" forwards them to an external
+    // STOMP broker (RabbitMQ, ActiveMQ, ...) so several nodes can share arena topics
+    @Value("${arena.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${arena.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${arena.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${arena.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${arena.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+        } else {
+            config.enableSimpleBroker("/topic");
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -20,11 +20,12 @@ public AdminCourseController(CourseService courseSvc) {
         return ResponseEntity.ok(saved);
     }
 
-//    @PutMapping("/{id}")
-//    public ResponseEntity<Course> updateCourse(@PathVariable Long id, @RequestBody Course course) {
-//        // Admin can edit courses
-//        return ResponseEntity.ok(courseSvc.updatecourse(id, course));
-//    }
+    @PutMapping("/{id}")
+    public ResponseEntity<Course> updateCourse(@PathVariable Long id, @RequestBody Course course) {
+        // Admin can edit courses
+        Course updated = courseSvc.updateCourse(id, course);
+        return updated != null ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
+    }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCourse(@PathVariable Long id) {
@@ -0,0 +1,45 @@
+package com.learnforge.controller;
+
+import com.learnforge.model.QuestionImportJob;
+import com.learnforge.service.QuestionImportJobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/admin/questions")
+public class AdminQuestionController {
+
+    private final QuestionImportJobService importJobService;
+
+    public AdminQuestionController(QuestionImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    /**
+     * POST /api/admin/questions/import
+     * Body is the raw file: a JSON array of questions or NDJSON, streamed rather than buffered.
+     * Returns 202 with the job; poll the Location for progress.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<QuestionImportJob> importQuestions(InputStream body) throws IOException {
+        QuestionImportJob job = importJobService.submit(body);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+
+    /**
+     * GET /api/admin/questions/import/{jobId}
+     * Progress counters, status and the first row errors of an import
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<QuestionImportJob> getImportJob(@PathVariable String jobId) {
+        return importJobService.get(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -2,9 +2,11 @@ package com.learnforge.controller;
 
 import com.learnforge.model.Question;
 import com.learnforge.entity.UserProgress;
+import com.learnforge.service.ArenaMatchmaker;
 import com.learnforge.service.ArenaService;
 import com.learnforge.service.QuestionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
@@ -22,6 +24,10 @@ public class ArenaController {
     private ArenaService arenaService;
     @Autowired
     private QuestionService questionService;
+    @Autowired
+    private ArenaMatchmaker arenaMatchmaker;
+
+    private static final int MAX_AROUND_WINDOW = 25;
 
     // @GetMapping("/start")
     // public List<Question> startGame(@RequestParam(defaultValue = "10") int count)
@@ -32,14 +38,19 @@ public class ArenaController {
     public List<Question> startArena(
             @RequestParam String topic,
             @RequestParam String difficulty,
-            @RequestParam(defaultValue = "5") int count) {
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(required = false) String userId) {
 
-        return questionService.getRandomQuestions(topic, difficulty, count);
+        // With a userId the draw leans toward the user's weak subtopics and skips recent questions
+        return questionService.getQuestionsFor(userId, topic, difficulty, count);
     }
 
     @PostMapping("/submit")
-    public Map<String, Object> submitAnswers(@RequestParam String userId, @RequestBody Map<Long, String> answers) {
-        return arenaService.evaluateAnswers(userId, answers);
+    public Map<String, Object> submitAnswers(@RequestParam String userId,
+                                             @RequestParam(required = false) String topic,
+                                             @RequestParam(required = false) String difficulty,
+                                             @RequestBody Map<Long, String> answers) {
+        return arenaService.evaluateAnswers(userId, topic, difficulty, answers);
     }
 
     /**
@@ -55,9 +66,51 @@ public class ArenaController {
         return arenaService.getUserProgress(userId);
     }
 
+    /**
+     * GET /api/arena/leaderboard?type=week|month|all-time
+     * Returns the top 50. Ranks are competition ranks, the same as the rank and
+     * around endpoints: ties share a rank (1, 2, 2, 4) and users without an
+     * account are not counted
+     */
     @GetMapping("/leaderboard")
     public List<com.learnforge.dto.LeaderboardEntryDto> getLeaderboard(
             @RequestParam(defaultValue = "week") String type) {
         return arenaService.getLeaderboard(type);
     }
+
+    /**
+     * GET /api/arena/leaderboard/rank/{userId}
+     * Returns the user's own entry with the same rank /leaderboard shows:
+     * ties share a rank and users without an account are not counted
+     */
+    @GetMapping("/leaderboard/rank/{userId}")
+    public ResponseEntity<com.learnforge.dto.LeaderboardEntryDto> getUserRank(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "all-time") String type) {
+        return arenaService.getUserRank(userId, type)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/arena/leaderboard/around/{userId}?window=N
+     * Returns up to N entries above and below the user, ranked as in /leaderboard
+     */
+    @GetMapping("/leaderboard/around/{userId}")
+    public List<com.learnforge.dto.LeaderboardEntryDto> getLeaderboardAround(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "5") int window,
+            @RequestParam(defaultValue = "all-time") String type) {
+        int boundedWindow = Math.max(0, Math.min(window, MAX_AROUND_WINDOW));
+        return arenaService.getLeaderboardAround(userId, type, boundedWindow);
+    }
+
+    /**
+     * GET /api/arena/match/stats
+     * Matchmaking queue depth and time-to-match
+     */
+    @GetMapping("/match/stats")
+    public Map<String, Object> getMatchStats() {
+        return arenaMatchmaker.stats();
+    }
 }
@@ -21,7 +21,8 @@ public class ArenaResultController {
     }
 
     @GetMapping("/leaderboard")
-    public List<ArenaResult> getLeaderboard(@RequestParam(required = false) String topic) {
-        return arenaResultService.getLeaderboard(topic);
+    public List<ArenaResult> getLeaderboard(@RequestParam(required = false) String topic,
+                                            @RequestParam(required = false) String difficulty) {
+        return arenaResultService.getLeaderboard(topic, difficulty);
     }
 }
@@ -1,88 +1,71 @@
 package com.learnforge.controller;
 
 import com.learnforge.model.ArenaMessage;
+import com.learnforge.service.ArenaMatchmaker;
+import com.learnforge.service.ArenaRoomManager;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-
 @Controller
 public class ArenaWebSocketController {
 
-    private final SimpMessagingTemplate messagingTemplate;
-    private final Map<String, List<String>> rooms = new ConcurrentHashMap<>();
-    private final Map<String, Map<String, ArenaMessage>> answers = new ConcurrentHashMap<>();
+    private final ArenaRoomManager roomManager;
+    private final ArenaMatchmaker matchmaker;
+
+    public ArenaWebSocketController(ArenaRoomManager roomManager, ArenaMatchmaker matchmaker) {
+        this.roomManager = roomManager;
+        this.matchmaker = matchmaker;
+    }
+
+    // Ask for an opponent; the room id arrives on /topic/arena/match/{userId}
+    @MessageMapping("/arena/queue")
+    public void queue(ArenaMessage msg,
+                      @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String sessionId) {
+        matchmaker.enqueue(msg, sessionId);
+    }
 
-    public ArenaWebSocketController(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    @MessageMapping("/arena/dequeue")
+    public void dequeue(ArenaMessage msg) {
+        matchmaker.dequeue(msg.getUserId());
     }
 
     // Handle player joining a room
     @MessageMapping("/arena/join")
-    public void joinRoom(ArenaMessage msg) {
-        rooms.computeIfAbsent(msg.getRoomId(), id -> new ArrayList<>());
-        if (!rooms.get(msg.getRoomId()).contains(msg.getUserId())) {
-            rooms.get(msg.getRoomId()).add(msg.getUserId());
-        }
-        System.out.println("JOIN received from: " + msg.getUserId() + " in room " + msg.getRoomId());
-
-        // Notify everyone a player joined
-        msg.setAction("JOINED");
-        messagingTemplate.convertAndSend("/topic/arena/" + msg.getRoomId(), msg);
+    public void joinRoom(ArenaMessage msg,
+                         @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String sessionId) {
+        roomManager.join(msg, sessionId);
+    }
 
-        // Send updated player list to all
-        ArenaMessage listMsg = new ArenaMessage();
-        listMsg.setAction("PLAYER_LIST");
-        listMsg.setRoomId(msg.getRoomId());
-        listMsg.setPlayers(new ArrayList<>(rooms.get(msg.getRoomId())));
-        messagingTemplate.convertAndSend("/topic/arena/" + msg.getRoomId(), listMsg);
+    // Full player list for a client that noticed a membership version gap
+    @MessageMapping("/arena/sync")
+    public void sync(ArenaMessage msg) {
+        roomManager.sync(msg);
     }
 
     // Handle player chat messages
     @MessageMapping("/arena/chat")
     public void chat(ArenaMessage msg) {
-        msg.setAction("CHAT");
-        msg.setTimestamp(new Date().toString());
-        messagingTemplate.convertAndSend("/topic/arena/" + msg.getRoomId(), msg);
+        roomManager.chat(msg);
     }
 
     // Handle player leaving
     @MessageMapping("/arena/leave")
-    public void leave(ArenaMessage msg) {
-        if (rooms.containsKey(msg.getRoomId())) {
-            rooms.get(msg.getRoomId()).remove(msg.getUserId());
-            msg.setAction("LEFT");
-            messagingTemplate.convertAndSend("/topic/arena/" + msg.getRoomId(), msg);
+    public void leave(ArenaMessage msg,
+                      @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String sessionId) {
+        roomManager.leave(msg, sessionId);
+    }
 
-            // Update player list
-            ArenaMessage listMsg = new ArenaMessage();
-            listMsg.setAction("PLAYER_LIST");
-            listMsg.setRoomId(msg.getRoomId());
-            listMsg.setPlayers(new ArrayList<>(rooms.get(msg.getRoomId())));
-            messagingTemplate.convertAndSend("/topic/arena/" + msg.getRoomId(), listMsg);
-        }
+    // Start a server-run game: questions, deadlines and scoring come from the round engine
+    @MessageMapping("/arena/start")
+    public void startGame(ArenaMessage msg) {
+        roomManager.startGame(msg);
     }
 
-    // Optional: Game answer logic (as you had)
+    // Game answer logic: ROUND_RESULT once everyone answered or the round deadline passes
     @MessageMapping("/arena/answer")
     public void submitAnswer(ArenaMessage msg) {
-        answers.computeIfAbsent(msg.getRoomId(), id -> new HashMap<>());
-        answers.get(msg.getRoomId()).put(msg.getUserId(), msg);
-
-        msg.setAction("ANSWERED");
-        messagingTemplate.convertAndSend("/topic/arena/" + msg.getRoomId(), msg);
-
-        List<String> users = rooms.getOrDefault(msg.getRoomId(), new ArrayList<>());
-        if (answers.get(msg.getRoomId()).size() == users.size()) {
-            ArenaMessage result = new ArenaMessage();
-            result.setRoomId(msg.getRoomId());
-            result.setAction("ROUND_RESULT");
-            messagingTemplate.convertAndSend("/topic/arena/" + msg.getRoomId(), result);
-            answers.get(msg.getRoomId()).clear();
-        }
+        roomManager.answer(msg);
     }
-
-
 }
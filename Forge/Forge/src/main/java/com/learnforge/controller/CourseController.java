@@ -1,8 +1,11 @@
 package com.learnforge.controller;
 
 import com.learnforge.entity.Course;
+import com.learnforge.service.CourseCatalogCache;
 import com.learnforge.service.CourseService;
+import com.learnforge.util.PageCursor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,19 +18,33 @@ import java.util.Optional;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseCatalogCache catalogCache;
 
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, CourseCatalogCache catalogCache) {
         this.courseService = courseService;
-        System.out.println("🎯 CourseController initialized!");
+        this.catalogCache = catalogCache;
     }
 
-    // ✅ GET - Get all courses
+    // ✅ GET - Get courses, with lessonCount, from the cached catalog, one keyset page at a time
     @GetMapping("/courses")
-    public ResponseEntity<List<Course>> getAllCourses() {
+    public ResponseEntity<byte[]> getAllCourses(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        long afterId = PageCursor.decode(cursor);
         try {
-            List<Course> courses = courseService.getAllCourses();
-            System.out.println("🎯 Returning " + courses.size() + " courses");
-            return ResponseEntity.ok(courses);
+            CourseCatalogCache.Snapshot catalog = catalogCache.get();
+            if (catalog.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.etag()).build();
+            }
+            CourseCatalogCache.Page page = catalog.page(afterId, PageCursor.limit(limit));
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(catalog.etag())
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (page.lastId() != null) {
+                response.header(PageCursor.HEADER, PageCursor.encode(page.lastId()));
+            }
+            return response.body(page.json());
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).build();
@@ -2,12 +2,14 @@ package com.learnforge.controller;
 
 import com.learnforge.dto.ExecuteRequest;
 import com.learnforge.dto.ExecuteResponse;
+import com.learnforge.service.ExecutionResultCache;
 import com.learnforge.service.Judge0Service;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/execute")
@@ -15,26 +17,40 @@ import java.util.Map;
 public class ExecuteController {
 
     private final Judge0Service judge0Service;
+    private final ExecutionResultCache resultCache;
 
-    public ExecuteController(Judge0Service judge0Service) {
+    public ExecuteController(Judge0Service judge0Service, ExecutionResultCache resultCache) {
         this.judge0Service = judge0Service;
+        this.resultCache = resultCache;
     }
 
+    // Result cache hit/miss counters, and the active execution backend's own counters
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return Map.of("cache", resultCache.stats(), "executor", judge0Service.stats());
+    }
+
+    // Async: the request thread is released while the backend runs the code
     @PostMapping
-    public ResponseEntity<ExecuteResponse> run(@RequestBody ExecuteRequest req) {
-        try {
-            // Validate input
-            if (req.getLanguage() == null || req.getCode() == null) {
-                return ResponseEntity.badRequest().body(
-                        createErrorResponse("Missing 'language' or 'code' in request")
-                );
-            }
+    public CompletableFuture<ResponseEntity<ExecuteResponse>> run(@RequestBody ExecuteRequest req) {
+        // Validate input
+        if (req.getLanguage() == null || req.getCode() == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
+                    createErrorResponse("Missing 'language' or 'code' in request")
+            ));
+        }
 
-            Map<String, Object> result = judge0Service.execute(req);
+        return judge0Service.executeAsync(req)
+                .thenApply(this::toResponse)
+                .exceptionally(e -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(createErrorResponse("Execution failed: " + e.getMessage())));
+    }
 
+    private ResponseEntity<ExecuteResponse> toResponse(Map<String, Object> result) {
+        try {
             if (result == null) {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(createErrorResponse("No response from Judge0"));
+                        .body(createErrorResponse("No response from executor"));
             }
 
             ExecuteResponse response = new ExecuteResponse();
@@ -1,7 +1,9 @@
 package com.learnforge.controller;
 
+import com.learnforge.dto.LessonWithResourcesDTO;
 import com.learnforge.entity.Lesson;
 import com.learnforge.service.LessonService;
+import com.learnforge.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,11 +19,26 @@ public class LessonController {
     @Autowired
     private LessonService lessonService;
 
+    // Lists are keyset-paged: pass the X-Next-Cursor header back as ?cursor= for the next page
     @GetMapping
-    public ResponseEntity<List<Lesson>> getLessonsByCourse(@PathVariable Long courseId) {
-        System.out.println("🎯 API: GET /courses/" + courseId + "/lessons");
-        List<Lesson> lessons = lessonService.getLessonsByCourseId(courseId);
-        return ResponseEntity.ok(lessons);
+    public ResponseEntity<List<Lesson>> getLessonsByCourse(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = PageCursor.limit(limit);
+        List<Lesson> lessons = lessonService.getLessonsByCourseId(courseId, PageCursor.decode(cursor), pageSize + 1);
+        return PageCursor.respond(lessons, pageSize, Lesson::getLessonId);
+    }
+
+    @GetMapping("/with-resources")
+    public ResponseEntity<List<LessonWithResourcesDTO>> getLessonsWithResources(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = PageCursor.limit(limit);
+        List<LessonWithResourcesDTO> lessons =
+                lessonService.getLessonsWithResources(courseId, PageCursor.decode(cursor), pageSize + 1);
+        return PageCursor.respond(lessons, pageSize, dto -> dto.getLesson().getLessonId());
     }
 
     @GetMapping("/{lessonId}")
@@ -2,6 +2,7 @@ package com.learnforge.controller;
 
 import com.learnforge.entity.Progress;
 import com.learnforge.service.ProgressService;
+import com.learnforge.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -30,12 +31,16 @@ public class ProgressController {
         }
     }
 
-    // Get all progress for a user
+    // Get a user's progress, one keyset page at a time; see PageCursor
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getAllUserProgress(@PathVariable String userId) {
+    public ResponseEntity<?> getAllUserProgress(@PathVariable String userId,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        long afterId = PageCursor.decode(cursor);
+        int pageSize = PageCursor.limit(limit);
         try {
-            List<Progress> progressList = progressService.getAllUserProgress(userId);
-            return ResponseEntity.ok(progressList);
+            List<Progress> progressList = progressService.getUserProgressPage(userId, afterId, pageSize + 1);
+            return PageCursor.respond(progressList, pageSize, Progress::getId);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -19,7 +19,8 @@ public class QuestionController {
     public List<Question> getQuestions(
             @RequestParam String topic,
             @RequestParam String difficulty,
-            @RequestParam(defaultValue = "10") int limit) {
-        return questionService.getRandomQuestions(topic, difficulty, limit);
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String userId) {
+        return questionService.getQuestionsFor(userId, topic, difficulty, limit);
     }
 }
@@ -5,6 +5,7 @@ import com.learnforge.entity.Resource;
 import com.learnforge.repository.LessonRepository;
 import com.learnforge.service.ResourceService;
 import com.learnforge.service.ScraperService;
+import com.learnforge.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,15 +26,17 @@ public class ResourceController {
     @Autowired
     private ScraperService scraperService;
 
-    // ✅ GET all resources for a lesson
+    // ✅ GET resources for a lesson, one keyset page at a time; see PageCursor
     @GetMapping
     public ResponseEntity<List<Resource>> getResources(
             @PathVariable Long courseId,
-            @PathVariable Long lessonId) {
+            @PathVariable Long lessonId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
-        System.out.println("🎯 GET /courses/" + courseId + "/lessons/" + lessonId + "/resources");
-        List<Resource> resources = resourceService.getResourcesByLessonId(lessonId);
-        return ResponseEntity.ok(resources);
+        int pageSize = PageCursor.limit(limit);
+        List<Resource> resources = resourceService.getResourcesByLessonId(lessonId, PageCursor.decode(cursor), pageSize + 1);
+        return PageCursor.respond(resources, pageSize, Resource::getId);
     }
 
     // ✅ POST manually add a resource
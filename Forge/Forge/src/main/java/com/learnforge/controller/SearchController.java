@@ -0,0 +1,35 @@
+package com.learnforge.controller;
+
+import com.learnforge.dto.SearchResponse;
+import com.learnforge.dto.Suggestion;
+import com.learnforge.service.AutocompleteService;
+import com.learnforge.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class SearchController {
+
+    private final SearchService searchService;
+    private final AutocompleteService autocompleteService;
+
+    // type narrows to course, lesson, resource or question
+    @GetMapping("/search")
+    public SearchResponse search(@RequestParam String q,
+                                 @RequestParam(required = false) String type,
+                                 @RequestParam(defaultValue = "0") int page,
+                                 @RequestParam(defaultValue = "20") int size) {
+        return searchService.search(q, type, page, size);
+    }
+
+    // Served from memory on every keystroke
+    @GetMapping("/autocomplete")
+    public List<Suggestion> autocomplete(@RequestParam String q,
+                                         @RequestParam(defaultValue = "10") int limit) {
+        return autocompleteService.suggest(q, limit);
+    }
+}
@@ -0,0 +1,37 @@
+package com.learnforge.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One question as it appears in questions.json or an import file.
+ *
+ * Accepts both layouts in use: {@code question / options[] / answer} and the
+ * entity-shaped {@code questionText / optionA..optionD / correctAnswer}.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class QuestionImportDto {
+    private Long id;
+    private String topic;
+    private String subtopic;
+    private String difficulty;
+
+    private String question;
+    private String questionText;
+
+    private List<String> options;
+    private String optionA;
+    private String optionB;
+    private String optionC;
+    private String optionD;
+
+    private String answer;
+    private String correctAnswer;
+
+    private String explanation;
+}
@@ -0,0 +1,22 @@
+package com.learnforge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private String type;      // course, lesson, resource, question
+    private Long id;
+    private String title;
+    private String snippet;
+    private Long courseId;    // set for lessons and resources
+    private Long lessonId;    // set for resources
+    private double score;
+
+    public SearchHit withScore(double score) {
+        return new SearchHit(type, id, title, snippet, courseId, lessonId, score);
+    }
+}
@@ -0,0 +1,18 @@
+package com.learnforge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponse {
+    private String query;
+    private int page;
+    private int size;
+    private int total;
+    private List<SearchHit> hits;
+}
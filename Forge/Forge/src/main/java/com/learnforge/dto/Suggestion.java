@@ -0,0 +1,15 @@
+package com.learnforge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+    private String text;
+    private String type;      // course, lesson, topic, subtopic
+    private Long id;          // course or lesson id; null for topics
+    private Long courseId;    // set for courses and lessons
+}
@@ -0,0 +1,35 @@
+package com.learnforge.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Question ids a user has answered in the arena, as a serialized Roaring bitmap.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "user_seen_questions")
+public class UserSeenQuestions {
+
+    @Id
+    @Column(name = "user_id", length = 36)
+    private String userId;
+
+    @Lob
+    @Column(name = "bitmap")
+    private byte[] bitmap;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
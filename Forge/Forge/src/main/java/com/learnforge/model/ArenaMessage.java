@@ -2,6 +2,7 @@ package com.learnforge.model;
 
 import lombok.Data;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class ArenaMessage {
@@ -12,4 +13,26 @@ public class ArenaMessage {
     private String action;
     private String timestamp;
     private List<String> players;
+
+    // Membership version: bumped on every JOINED / LEFT, carried by PLAYER_LIST snapshots
+    private Long version;
+
+    // BATCH frames carry several coalesced events
+    private List<ArenaMessage> events;
+
+    // Round engine: START carries topic/difficulty/rounds, QUESTION carries round/question/deadline
+    private String topic;
+    private String difficulty;
+    private Integer rounds;
+    private Integer round;
+    private Question question;
+    private Long deadline;
+
+    // Player's answer on /arena/answer; the correct one is revealed in ROUND_RESULT
+    private String answer;
+    private String correctAnswer;
+
+    // SCORE_DELTA carries the points just earned, ROUND_RESULT / GAME_OVER the totals
+    private Integer scoreDelta;
+    private Map<String, Integer> scores;
 }
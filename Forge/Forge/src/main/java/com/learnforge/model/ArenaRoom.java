@@ -0,0 +1,285 @@
+package com.learnforge.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live state of one multiplayer arena room.
+ *
+ * Mutations are expected to run on the room's lane of the arena executor;
+ * the concurrent collections only make reads from other threads safe.
+ */
+public class ArenaRoom {
+
+    private final String roomId;
+    private final Set<String> players = ConcurrentHashMap.newKeySet();
+    private final Map<String, ArenaMessage> answers = new ConcurrentHashMap<>();
+    private final AtomicInteger answerCount = new AtomicInteger();
+    private final AtomicInteger round = new AtomicInteger(1);
+    private final AtomicLong version = new AtomicLong();
+
+    // Game state, owned by the round engine
+    private final Map<String, Integer> scores = new ConcurrentHashMap<>();
+    private List<Question> questions = List.of();
+    private int questionIndex = -1;
+    private boolean gameInProgress;
+    private boolean roundOpen;
+    private long roundStartedAt;
+    private long roundDeadline;
+    private ScheduledFuture<?> timer;
+    private long timerToken;
+
+    // Revision of the stored copy this room was loaded from, for stores that share state between nodes
+    private Long storeRevision;
+
+    public ArenaRoom(String roomId) {
+        this.roomId = roomId;
+    }
+
+    /**
+     * Rebuilds a room from its stored state. The pending timer itself is not
+     * restored; a timer fired on another node is recognised by its token.
+     */
+    public static ArenaRoom restore(ArenaRoomState state, Collection<String> players,
+                                    Map<String, String> answers, Map<String, Integer> scores,
+                                    List<Question> questions) {
+        ArenaRoom room = new ArenaRoom(state.getRoomId());
+        room.players.addAll(players);
+        answers.forEach((userId, answer) -> {
+            ArenaMessage msg = new ArenaMessage();
+            msg.setRoomId(state.getRoomId());
+            msg.setUserId(userId);
+            msg.setAnswer(answer);
+            room.recordAnswer(userId, msg);
+        });
+        room.round.set(state.getRound());
+        room.version.set(state.getMembershipVersion());
+        room.scores.putAll(scores);
+        room.questions = List.copyOf(questions);
+        room.questionIndex = state.getQuestionIndex();
+        room.gameInProgress = state.isGameInProgress();
+        room.roundOpen = state.isRoundOpen();
+        room.roundStartedAt = state.getRoundStartedAt();
+        room.roundDeadline = state.getRoundDeadline();
+        room.timerToken = state.getTimerToken();
+        room.storeRevision = state.getRevision();
+        return room;
+    }
+
+    public Long getStoreRevision() {
+        return storeRevision;
+    }
+
+    public void setStoreRevision(Long storeRevision) {
+        this.storeRevision = storeRevision;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * @return true if the player was not already in the room
+     */
+    public boolean addPlayer(String userId) {
+        if (!players.add(userId)) {
+            return false;
+        }
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes the player and any answer they gave this round.
+     *
+     * @return true if the player was in the room
+     */
+    public boolean removePlayer(String userId) {
+        boolean removed = players.remove(userId);
+        if (removed) {
+            version.incrementAndGet();
+        }
+        if (answers.remove(userId) != null) {
+            answerCount.decrementAndGet();
+        }
+        return removed;
+    }
+
+    public boolean hasPlayer(String userId) {
+        return players.contains(userId);
+    }
+
+    /**
+     * Membership version, bumped on every join and leave.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public List<String> getPlayers() {
+        return List.copyOf(players);
+    }
+
+    public int playerCount() {
+        return players.size();
+    }
+
+    public boolean isEmpty() {
+        return players.isEmpty();
+    }
+
+    /**
+     * Records a player's answer for the current round. Only the first answer counts.
+     *
+     * @return true if this was the player's first answer this round
+     */
+    public boolean recordAnswer(String userId, ArenaMessage answer) {
+        if (answers.putIfAbsent(userId, answer) != null) {
+            return false;
+        }
+        answerCount.incrementAndGet();
+        return true;
+    }
+
+    public Map<String, ArenaMessage> getAnswers() {
+        return Map.copyOf(answers);
+    }
+
+    public boolean allAnswered() {
+        return !players.isEmpty() && answerCount.get() >= players.size();
+    }
+
+    public int getRound() {
+        return round.get();
+    }
+
+    /**
+     * Clears this round's answers and moves to the next round.
+     */
+    public int nextRound() {
+        answers.clear();
+        answerCount.set(0);
+        return round.incrementAndGet();
+    }
+
+    public boolean isGameInProgress() {
+        return gameInProgress;
+    }
+
+    /**
+     * Starts a game over the given questions; scores start at zero for everyone present.
+     */
+    public void startGame(List<Question> gameQuestions) {
+        questions = List.copyOf(gameQuestions);
+        questionIndex = -1;
+        gameInProgress = true;
+        scores.clear();
+        players.forEach(userId -> scores.put(userId, 0));
+    }
+
+    public void endGame() {
+        cancelTimer();
+        questions = List.of();
+        questionIndex = -1;
+        gameInProgress = false;
+        roundOpen = false;
+    }
+
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    /**
+     * 0-based index of the current question, -1 before the first one.
+     */
+    public int getQuestionIndex() {
+        return questionIndex;
+    }
+
+    public boolean hasNextQuestion() {
+        return questionIndex + 1 < questions.size();
+    }
+
+    /**
+     * Advances to the next question and opens a new round for answers.
+     */
+    public Question advanceQuestion(long now, long deadline) {
+        questionIndex++;
+        nextRound();
+        roundOpen = true;
+        roundStartedAt = now;
+        roundDeadline = deadline;
+        return questions.get(questionIndex);
+    }
+
+    /**
+     * 1-based position of the current question within the game.
+     */
+    public int getQuestionNumber() {
+        return questionIndex + 1;
+    }
+
+    public boolean isRoundOpen() {
+        return roundOpen;
+    }
+
+    public void closeRound() {
+        roundOpen = false;
+        cancelTimer();
+    }
+
+    public Question getCurrentQuestion() {
+        return gameInProgress && questionIndex >= 0 ? questions.get(questionIndex) : null;
+    }
+
+    public long getRoundStartedAt() {
+        return roundStartedAt;
+    }
+
+    public long getRoundDeadline() {
+        return roundDeadline;
+    }
+
+    public int addScore(String userId, int delta) {
+        return scores.merge(userId, delta, Integer::sum);
+    }
+
+    public Map<String, Integer> getScores() {
+        return Map.copyOf(scores);
+    }
+
+    /**
+     * Cancels the pending timer and returns a token identifying the next one.
+     * A timer task that fires with an older token has been superseded.
+     */
+    public long newTimerToken() {
+        cancelTimer();
+        return timerToken;
+    }
+
+    public long getTimerToken() {
+        return timerToken;
+    }
+
+    public boolean isCurrentTimer(long token) {
+        return token == timerToken;
+    }
+
+    public void setTimer(ScheduledFuture<?> timer) {
+        this.timer = timer;
+    }
+
+    public void cancelTimer() {
+        timerToken++;
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.learnforge.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted copy of an {@link ArenaRoom}, used when room state is shared
+ * between backend nodes. Collections are stored as JSON text.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "arena_room_state")
+public class ArenaRoomState {
+
+    @Id
+    @Column(name = "room_id", length = 100)
+    private String roomId;
+
+    // Optimistic lock: a node writing over a newer copy fails instead of clobbering it
+    @Version
+    @Column(name = "revision")
+    private Long revision;
+
+    @Column(name = "membership_version")
+    private long membershipVersion;
+
+    @Lob
+    @Column(name = "players", columnDefinition = "TEXT")
+    private String players;
+
+    @Lob
+    @Column(name = "answers", columnDefinition = "TEXT")
+    private String answers;
+
+    @Column(name = "round")
+    private int round;
+
+    @Lob
+    @Column(name = "scores", columnDefinition = "TEXT")
+    private String scores;
+
+    @Lob
+    @Column(name = "question_ids", columnDefinition = "TEXT")
+    private String questionIds;
+
+    @Column(name = "question_index")
+    private int questionIndex;
+
+    @Column(name = "game_in_progress")
+    private boolean gameInProgress;
+
+    @Column(name = "round_open")
+    private boolean roundOpen;
+
+    @Column(name = "round_started_at")
+    private long roundStartedAt;
+
+    @Column(name = "round_deadline")
+    private long roundDeadline;
+
+    @Column(name = "timer_token")
+    private long timerToken;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
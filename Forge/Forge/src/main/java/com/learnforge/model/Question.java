@@ -1,5 +1,6 @@
 package com.learnforge.model;
 
+import com.learnforge.util.QuestionFingerprint;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,7 +9,9 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "question")
+@Table(name = "question", indexes = {
+        @Index(name = "uk_question_text_hash", columnList = "text_hash", unique = true)
+})
 public class Question {
 
     @Id
@@ -37,4 +40,18 @@ public class Question {
     private String subtopic;
     private String difficulty;
     private String explanation;
+
+    // SHA-256 of the seeded fields, so re-imports only touch rows whose content changed
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // 64-bit hash of the normalized question text; the indexed key for duplicate checks
+    @Column(name = "text_hash")
+    private Long textHash;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        textHash = QuestionFingerprint.textHash(questionText);
+    }
 }
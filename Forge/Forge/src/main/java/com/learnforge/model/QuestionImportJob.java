@@ -0,0 +1,112 @@
+package com.learnforge.model;
+
+import com.learnforge.service.QuestionImportService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Status of one admin question import, serialized as-is by the job status endpoint.
+ * Written by the import thread and read by request threads.
+ */
+public class QuestionImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    public record RowError(int row, String message) {
+    }
+
+    private static final int MAX_ERRORS = 100;
+
+    private final String id;
+    private final long bytesTotal;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile QuestionImportService.Result counts = new QuestionImportService.Result(0, 0, 0, 0, 0, 0);
+    private volatile long bytesRead;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+    // Only the first MAX_ERRORS row errors are kept; counts.failed has the total
+    private final List<RowError> errors = new ArrayList<>();
+
+    public QuestionImportJob(String id, long bytesTotal) {
+        this.id = id;
+        this.bytesTotal = bytesTotal;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public QuestionImportService.Result getCounts() {
+        return counts;
+    }
+
+    public long getBytesTotal() {
+        return bytesTotal;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public int getPercent() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        return bytesTotal > 0 ? (int) Math.min(99, bytesRead * 100 / bytesTotal) : 0;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized List<RowError> getErrors() {
+        return List.copyOf(errors);
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+    }
+
+    public void progress(QuestionImportService.Result soFar, long bytesRead) {
+        this.counts = soFar;
+        this.bytesRead = bytesRead;
+    }
+
+    public synchronized void rowError(int row, String message) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void complete(QuestionImportService.Result result) {
+        this.counts = result;
+        this.bytesRead = bytesTotal;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+}
@@ -14,7 +14,7 @@ public interface ArenaResultRepository extends JpaRepository<ArenaResult, Long>
     @Query("SELECT r.userId, SUM(r.score) as totalScore FROM ArenaResult r WHERE r.playedAt >= :startDate GROUP BY r.userId ORDER BY totalScore DESC")
     List<Object[]> findLeaderboardSince(@Param("startDate") LocalDateTime startDate);
 
-    List<ArenaResult> findTop10ByTopicOrderByAccuracyDesc(String topic);
-
-    List<ArenaResult> findTop10ByOrderByAccuracyDesc();
+    // (userId, playedAt, score) rows used to rebuild the rolling leaderboards at startup
+    @Query("SELECT r.userId, r.playedAt, r.score FROM ArenaResult r WHERE r.playedAt >= :startDate")
+    List<Object[]> findScoresSince(@Param("startDate") LocalDateTime startDate);
 }
@@ -0,0 +1,25 @@
+package com.learnforge.repository;
+
+import com.learnforge.model.ArenaRoomState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ArenaRoomStateRepository extends JpaRepository<ArenaRoomState, String> {
+
+    // Empty room at revision 0; a row another node created first is left alone
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO arena_room_state (room_id, revision, membership_version, round, "
+            + "question_index, game_in_progress, round_open, round_started_at, round_deadline, timer_token, updated_at) "
+            + "VALUES (:roomId, 0, 0, 1, -1, false, false, 0, 0, 0, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int insertIfAbsent(@Param("roomId") String roomId);
+
+    // Games whose current round closed, or should have, before the cutoff
+    @Query("SELECT s.roomId FROM ArenaRoomState s WHERE s.gameInProgress = true AND s.roundDeadline < :cutoff")
+    List<String> findGamesWithDeadlineBefore(@Param("cutoff") long cutoff);
+}
@@ -2,6 +2,7 @@ package com.learnforge.repository;
 
 import com.learnforge.entity.Course;
 import com.learnforge.entity.Lesson;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +24,10 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
     @Query("SELECT l FROM Lesson l WHERE l.course.courseId = :courseId ORDER BY l.lessonId ASC")
     List<Lesson> findByCourseIdOrderByLessonIdAsc(@Param("courseId") Long courseId);
 
+    // Keyset page: lessons of a course after the given id, in id order
+    @Query("SELECT l FROM Lesson l WHERE l.course.courseId = :courseId AND l.lessonId > :afterId ORDER BY l.lessonId ASC")
+    List<Lesson> findPageByCourseId(@Param("courseId") Long courseId, @Param("afterId") long afterId, Pageable pageable);
+
     // Find lessons by course (for ProgressService)
     List<Lesson> findByCourse(Course course);
 
@@ -29,6 +35,14 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
     @Query("SELECT COUNT(l) FROM Lesson l WHERE l.course.courseId = :courseId")
     Long countByCourseId(@Param("courseId") Long courseId);
 
+    // (courseId, lesson count) for every course with lessons, in one query
+    @Query("SELECT l.course.courseId, COUNT(l) FROM Lesson l GROUP BY l.course.courseId")
+    List<Object[]> countGroupedByCourseId();
+
+    // (courseId, lesson count) for the given courses, in one query
+    @Query("SELECT l.course.courseId, COUNT(l) FROM Lesson l WHERE l.course.courseId IN :courseIds GROUP BY l.course.courseId")
+    List<Object[]> countGroupedByCourseIdIn(@Param("courseIds") Collection<Long> courseIds);
+
     // Count lessons by Course entity
     Long countByCourse(Course course);
 
@@ -58,6 +72,10 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
     @Query("DELETE FROM Lesson l WHERE l.course.courseId = :courseId")
     void deleteByCourseId(@Param("courseId") Long courseId);
 
+    // (lessonId, lessonName, courseId) of every lesson, without loading entities
+    @Query("SELECT l.lessonId, l.lessonName, l.course.courseId FROM Lesson l")
+    List<Object[]> findAllNames();
+
     // Find lessons by name pattern (search)
     List<Lesson> findByLessonNameContainingIgnoreCase(String keyword);
 
@@ -3,7 +3,10 @@ package com.learnforge.repository;
 import com.learnforge.entity.Course;
 import com.learnforge.entity.Progress;
 import com.learnforge.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -33,6 +36,14 @@ public interface ProgressRepository extends JpaRepository<Progress, Long> {
     // Find progress by user ID
     List<Progress> findByUser_UserId(String userId);
 
+    // Keyset page of a user's progress after the given id, courses fetched in the same query
+    @Query("SELECT p FROM Progress p JOIN FETCH p.course WHERE p.user.userId = :userId AND p.id > :afterId ORDER BY p.id")
+    List<Progress> findPageByUserId(@Param("userId") String userId, @Param("afterId") long afterId, Pageable pageable);
+
+    // (courseId, completed lesson count) for each of a user's courses, in one query
+    @Query("SELECT p.course.courseId, SIZE(p.completedLessons) FROM Progress p WHERE p.user.userId = :userId")
+    List<Object[]> countCompletedByUserId(@Param("userId") String userId);
+
     // Find progress by course ID
     List<Progress> findByCourse_CourseId(Long courseId);
 }
@@ -1,10 +1,12 @@
 package com.learnforge.repository;
 
 import com.learnforge.model.Question;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,10 +18,22 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     // 🔹 Case-insensitive version (useful for mixed-topic inputs)
     List<Question> findByTopicIgnoreCaseAndDifficultyIgnoreCase(String topic, String difficulty);
 
-    // 🔹 Get random questions (used for arena random battle)
-    @Query(value = "SELECT * FROM question ORDER BY RAND() LIMIT :count", nativeQuery = true)
-    List<Question> findRandomQuestions(@Param("count") int count);
+    // 🔹 Answer keys (id, correctAnswer) for a whole arena submission in one round-trip
+    @Query("SELECT q.id, q.correctAnswer FROM Question q WHERE q.id IN :ids")
+    List<Object[]> findAnswerKeys(@Param("ids") Collection<Long> ids);
 
-    // 🔹 New method for DataLoader — check if question already exists
-    Optional<Question> findByQuestionText(String questionText);
+    // 🔹 (id, textHash, contentHash) for the given text hashes: one indexed lookup per import chunk
+    @Query("SELECT q.id, q.textHash, q.contentHash FROM Question q WHERE q.textHash IN :textHashes")
+    List<Object[]> findHashesByTextHash(@Param("textHashes") Collection<Long> textHashes);
+
+    // 🔹 Duplicate check for a single question; see QuestionFingerprint.textHash
+    Optional<Question> findByTextHash(Long textHash);
+
+    // 🔹 (id, questionText) of rows saved before text hashes existed, in id order
+    @Query("SELECT q.id, q.questionText FROM Question q WHERE q.textHash IS NULL AND q.id > :afterId ORDER BY q.id")
+    List<Object[]> findUnhashedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 🔹 (topic, subtopic, question count) for autocomplete weights
+    @Query("SELECT q.topic, q.subtopic, COUNT(q) FROM Question q GROUP BY q.topic, q.subtopic")
+    List<Object[]> countByTopicAndSubtopic();
 }
@@ -1,7 +1,12 @@
 package com.learnforge.repository;
 
 import com.learnforge.entity.Resource;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
@@ -11,4 +16,16 @@ public interface ResourceRepository extends JpaRepository<Resource, Long> {
 
 
     void deleteByLesson_LessonId(Long lessonId);
+
+    // Keyset page: resources of a lesson after the given id, in id order
+    @Query("SELECT r FROM Resource r WHERE r.lesson.lessonId = :lessonId AND r.id > :afterId ORDER BY r.id")
+    List<Resource> findPageByLessonId(@Param("lessonId") Long lessonId, @Param("afterId") long afterId, Pageable pageable);
+
+    // Resources of many lessons in one round-trip, grouped by lesson
+    @Query("SELECT r FROM Resource r WHERE r.lesson.lessonId IN :lessonIds ORDER BY r.lesson.lessonId, r.id")
+    List<Resource> findByLessonIds(@Param("lessonIds") Collection<Long> lessonIds);
+
+    // Lessons fetched in the same query, for building the search index
+    @Query("SELECT r FROM Resource r JOIN FETCH r.lesson")
+    List<Resource> findAllWithLesson();
 }
@@ -2,7 +2,9 @@ package com.learnforge.repository;
 
 import com.learnforge.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,6 +14,9 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     Optional<User> findByProviderAndProviderId(String provider, String providerId);
 
+    @Query("SELECT u.userId FROM User u")
+    List<String> findAllUserIds();
+
     boolean existsByEmail(String email);
 
     Optional<User> findByEmailAndProvider(String email, String provider);
@@ -0,0 +1,7 @@
+package com.learnforge.repository;
+
+import com.learnforge.entity.UserSeenQuestions;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserSeenQuestionsRepository extends JpaRepository<UserSeenQuestions, String> {
+}
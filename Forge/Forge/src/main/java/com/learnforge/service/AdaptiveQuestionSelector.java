@@ -0,0 +1,198 @@
+package com.learnforge.service;
+
+import com.learnforge.model.Question;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws arena questions weighted toward each user's weak subtopics.
+ *
+ * Per-user stats are two int arrays (attempts, correct) indexed by the
+ * question bank's dense subtopic ids, plus a small ring of recently served
+ * question ids. A draw picks a subtopic by weight and then a question in it,
+ * costing a few array scans. Questions the user has already answered, per
+ * {@link SeenQuestionService}'s cache, are held back like recent ones; serving
+ * questions never waits on the database. Stats start empty on each boot and
+ * are only created when a submission is recorded, for at most
+ * {@code arena.adaptive.cache-size} recently active users, so requests with
+ * made-up user ids cannot grow them. Users without stats get uniform weights.
+ */
+@Service
+public class AdaptiveQuestionSelector {
+
+    private static final int RECENT_SIZE = 64;
+    // Every subtopic keeps some weight, so mastered ones still come up now and then
+    private static final double EXPLORE_WEIGHT = 0.1;
+    private static final int TRIES_PER_QUESTION = 8;
+
+    private final QuestionBank questionBank;
+    private final SeenQuestionService seenQuestionService;
+    // Access-ordered LRU, guarded by its own monitor
+    private final Map<String, UserStats> stats;
+
+    public AdaptiveQuestionSelector(QuestionBank questionBank, SeenQuestionService seenQuestionService,
+                                    @Value("${arena.adaptive.cache-size:10000}") int cacheSize) {
+        this.questionBank = questionBank;
+        this.seenQuestionService = seenQuestionService;
+        this.stats = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserStats> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Up to {@code count} distinct questions for this user. Null filters match anything.
+     */
+    public List<Question> select(String userId, String topic, String difficulty, int count) {
+        int[] subtopics = questionBank.subtopicsFor(topic, difficulty);
+        if (subtopics.length == 0 || count <= 0) {
+            return new ArrayList<>();
+        }
+        UserStats user;
+        synchronized (stats) {
+            user = stats.get(userId);
+        }
+        if (user == null) {
+            // Not stored; it only carries this request's picks
+            user = new UserStats();
+        }
+
+        double[] cumulative = new double[subtopics.length];
+        double total = 0;
+        long[] recent;
+        synchronized (user) {
+            for (int i = 0; i < subtopics.length; i++) {
+                total += user.weight(subtopics[i]);
+                cumulative[i] = total;
+            }
+            recent = Arrays.copyOf(user.recent, user.recentCount);
+        }
+        RoaringBitmap seen = seenQuestionService.cachedSeen(userId);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Long> picked = new LinkedHashSet<>();
+        int maxTries = count * TRIES_PER_QUESTION;
+        for (int tries = 0; picked.size() < count && tries < maxTries; tries++) {
+            int slot = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            int subtopic = subtopics[slot >= 0 ? slot : Math.min(-slot - 1, subtopics.length - 1)];
+            long[] ids = questionBank.ids(topic, questionBank.subtopicName(subtopic), difficulty);
+            if (ids.length == 0) {
+                continue;
+            }
+            long id = ids[random.nextInt(ids.length)];
+            // Recent and answered questions are only allowed back once the first half of the tries is spent
+            if (picked.contains(id) || (tries < maxTries / 2 && (contains(recent, id) || seen.contains((int) id)))) {
+                continue;
+            }
+            picked.add(id);
+        }
+
+        // Small pools can run out of unseen questions; top up uniformly, repeats last
+        if (picked.size() < count) {
+            for (Question q : questionBank.sample(topic, null, difficulty, count + picked.size(),
+                    id -> picked.contains(id) || contains(recent, id) || seen.contains((int) id))) {
+                if (picked.size() >= count) {
+                    break;
+                }
+                picked.add(q.getId());
+            }
+        }
+
+        List<Question> result = new ArrayList<>(picked.size());
+        synchronized (user) {
+            for (long id : picked) {
+                questionBank.get(id).ifPresent(result::add);
+                user.markSeen(id);
+            }
+        }
+        return result;
+    }
+
+    // After commit, so a rolled-back submission does not skew the stats
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultRecorded(ArenaResultRecordedEvent event) {
+        if (event.outcomes() == null || event.outcomes().isEmpty()) {
+            return;
+        }
+        UserStats user;
+        synchronized (stats) {
+            user = stats.computeIfAbsent(event.result().getUserId(), id -> new UserStats());
+        }
+        synchronized (user) {
+            event.outcomes().forEach((questionId, correct) -> questionBank.get(questionId).ifPresent(q -> {
+                int subtopic = questionBank.subtopicId(q);
+                if (subtopic >= 0) {
+                    user.record(subtopic, correct);
+                }
+                user.markSeen(questionId);
+            }));
+        }
+    }
+
+    // Unused ring slots hold 0, which is never a question id
+    private static boolean contains(long[] ids, long id) {
+        for (long candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Guarded by its own monitor.
+     */
+    private static final class UserStats {
+        int[] attempts = new int[0];
+        int[] correct = new int[0];
+        final long[] recent = new long[RECENT_SIZE];
+        int recentCount;
+        int recentNext;
+
+        void record(int subtopic, boolean wasCorrect) {
+            if (subtopic >= attempts.length) {
+                int size = Math.max(subtopic + 1, attempts.length * 2);
+                attempts = Arrays.copyOf(attempts, size);
+                correct = Arrays.copyOf(correct, size);
+            }
+            attempts[subtopic]++;
+            if (wasCorrect) {
+                correct[subtopic]++;
+            }
+        }
+
+        // Laplace-smoothed, so a single answer does not swing a subtopic to 0 or 1
+        double accuracy(int subtopic) {
+            if (subtopic >= attempts.length) {
+                return 0.5;
+            }
+            return (correct[subtopic] + 1.0) / (attempts[subtopic] + 2.0);
+        }
+
+        double weight(int subtopic) {
+            return 1.0 - accuracy(subtopic) + EXPLORE_WEIGHT;
+        }
+
+        void markSeen(long questionId) {
+            if (contains(recent, questionId)) {
+                return;
+            }
+            recent[recentNext] = questionId;
+            recentNext = (recentNext + 1) % RECENT_SIZE;
+            recentCount = Math.min(recentCount + 1, RECENT_SIZE);
+        }
+    }
+}
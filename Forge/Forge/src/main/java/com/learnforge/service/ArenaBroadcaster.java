@@ -0,0 +1,144 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaMessage;
+import com.learnforge.model.ArenaRoom;
+import com.learnforge.util.StripedExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound side of arena rooms.
+ *
+ * High-frequency events (chat, answers, score deltas) are queued per room and
+ * flushed as one BATCH frame after a short window. Everything else goes out
+ * at once, after flushing whatever is queued so clients still see events in
+ * order. While a room is {@link #hold held}, everything sent to it waits
+ * until its update has been saved, so clients never see a change that did not
+ * stick. All calls for a room must come from that room's executor lane.
+ */
+@Service
+public class ArenaBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StripedExecutor executor;
+    private final ScheduledExecutorService scheduler;
+    private final long flushMillis;
+
+    // Each room's buffer is only touched from that room's lane
+    private final Map<String, List<ArenaMessage>> pending = new ConcurrentHashMap<>();
+    // Sends made while a room is held, replayed in order on release
+    private final Map<String, List<Runnable>> held = new ConcurrentHashMap<>();
+
+    public ArenaBroadcaster(SimpMessagingTemplate messagingTemplate,
+                            StripedExecutor arenaRoomExecutor,
+                            ScheduledExecutorService arenaScheduler,
+                            @Value("${arena.broadcast.flush-ms:5}") long flushMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.executor = arenaRoomExecutor;
+        this.scheduler = arenaScheduler;
+        this.flushMillis = flushMillis;
+    }
+
+    public void send(String roomId, ArenaMessage msg) {
+        if (holding(roomId, () -> send(roomId, msg))) {
+            return;
+        }
+        flush(roomId);
+        messagingTemplate.convertAndSend(roomTopic(roomId), msg);
+    }
+
+    /**
+     * Queue an event to go out with whatever else the room produces in the next few ms.
+     */
+    public void coalesce(String roomId, ArenaMessage msg) {
+        if (holding(roomId, () -> coalesce(roomId, msg))) {
+            return;
+        }
+        if (flushMillis <= 0) {
+            send(roomId, msg);
+            return;
+        }
+        List<ArenaMessage> buffer = pending.computeIfAbsent(roomId, id -> new ArrayList<>());
+        buffer.add(msg);
+        if (buffer.size() == 1) {
+            scheduler.schedule(() -> executor.execute(roomId, () -> flush(roomId)), flushMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Send to a single player. Clients subscribe to their sync topic before joining.
+     */
+    public void sendToPlayer(String roomId, String userId, ArenaMessage msg) {
+        if (holding(roomId, () -> sendToPlayer(roomId, userId, msg))) {
+            return;
+        }
+        messagingTemplate.convertAndSend(roomTopic(roomId) + "/sync/" + userId, msg);
+    }
+
+    /**
+     * Full membership snapshot for one player, e.g. after a join or a missed version.
+     */
+    public void sendPlayerList(ArenaRoom room, String userId) {
+        ArenaMessage listMsg = new ArenaMessage();
+        listMsg.setAction("PLAYER_LIST");
+        listMsg.setRoomId(room.getRoomId());
+        listMsg.setPlayers(room.getPlayers());
+        listMsg.setVersion(room.getVersion());
+        sendToPlayer(room.getRoomId(), userId, listMsg);
+    }
+
+    /**
+     * Hold back everything sent to the room until {@link #release} or {@link #discard}.
+     */
+    public void hold(String roomId) {
+        held.put(roomId, new ArrayList<>());
+    }
+
+    public void release(String roomId) {
+        List<Runnable> sends = held.remove(roomId);
+        if (sends != null) {
+            sends.forEach(Runnable::run);
+        }
+    }
+
+    public void discard(String roomId) {
+        held.remove(roomId);
+    }
+
+    public void flush(String roomId) {
+        List<ArenaMessage> buffer = pending.remove(roomId);
+        if (buffer == null || buffer.isEmpty()) {
+            return;
+        }
+        if (buffer.size() == 1) {
+            messagingTemplate.convertAndSend(roomTopic(roomId), buffer.get(0));
+            return;
+        }
+        ArenaMessage batch = new ArenaMessage();
+        batch.setRoomId(roomId);
+        batch.setAction("BATCH");
+        batch.setEvents(buffer);
+        messagingTemplate.convertAndSend(roomTopic(roomId), batch);
+    }
+
+    private boolean holding(String roomId, Runnable send) {
+        List<Runnable> sends = held.get(roomId);
+        if (sends == null) {
+            return false;
+        }
+        sends.add(send);
+        return true;
+    }
+
+    private static String roomTopic(String roomId) {
+        return "/topic/arena/" + roomId;
+    }
+}
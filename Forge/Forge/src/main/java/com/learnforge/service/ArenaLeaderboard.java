@@ -0,0 +1,122 @@
+package com.learnforge.service;
+
+import com.learnforge.entity.UserProgress;
+import com.learnforge.model.ArenaResult;
+import com.learnforge.repository.ArenaResultRepository;
+import com.learnforge.repository.UserProgressRepository;
+import com.learnforge.repository.UserRepository;
+import com.learnforge.util.RankedScoreBoard;
+import com.learnforge.util.RollingScoreWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * In-memory arena leaderboards, kept current as results are recorded.
+ *
+ * All-time ranks follow {@link UserProgress#getXpPoints()}; week and month
+ * ranks sum {@link ArenaResult} scores over rolling day buckets. The boards are
+ * rebuilt from the database once at startup and then updated incrementally.
+ * Only users with an account are on the boards, so they never count towards
+ * anyone's rank.
+ */
+@Service
+public class ArenaLeaderboard {
+    private static final Logger log = LoggerFactory.getLogger(ArenaLeaderboard.class);
+
+    private static final int WEEK_DAYS = 7;
+    private static final int MONTH_DAYS = 30;
+
+    private final UserProgressRepository userProgressRepository;
+    private final ArenaResultRepository arenaResultRepository;
+    private final UserRepository userRepository;
+
+    private final RankedScoreBoard allTime = new RankedScoreBoard();
+    private final RollingScoreWindow week = new RollingScoreWindow(WEEK_DAYS);
+    private final RollingScoreWindow month = new RollingScoreWindow(MONTH_DAYS);
+
+    public ArenaLeaderboard(UserProgressRepository userProgressRepository,
+                            ArenaResultRepository arenaResultRepository,
+                            UserRepository userRepository) {
+        this.userProgressRepository = userProgressRepository;
+        this.arenaResultRepository = arenaResultRepository;
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            allTime.clear();
+            week.clear();
+            month.clear();
+
+            Set<String> accounts = new HashSet<>(userRepository.findAllUserIds());
+            for (UserProgress p : userProgressRepository.findAll()) {
+                if (accounts.contains(p.getUserId())) {
+                    allTime.set(p.getUserId(), p.getXpPoints());
+                }
+            }
+
+            LocalDateTime since = LocalDate.now().minusDays(MONTH_DAYS - 1).atStartOfDay();
+            for (Object[] row : arenaResultRepository.findScoresSince(since)) {
+                if (accounts.contains((String) row[0])) {
+                    addToWindows((String) row[0], (Integer) row[2], ((LocalDateTime) row[1]).toLocalDate());
+                }
+            }
+
+            log.info("Arena leaderboard rebuilt: {} all-time, {} this week, {} this month",
+                    allTime.size(), week.board().size(), month.board().size());
+        } catch (Exception e) {
+            log.error("Failed to rebuild arena leaderboard: {}", e.getMessage(), e);
+        }
+    }
+
+    // Applied after commit so a rolled-back submission never shows up in the rankings
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultRecorded(ArenaResultRecordedEvent event) {
+        ArenaResult result = event.result();
+        if (!userRepository.existsById(result.getUserId())) {
+            return;
+        }
+        if (event.newXpTotal() != null) {
+            allTime.raise(result.getUserId(), event.newXpTotal());
+        }
+        LocalDateTime playedAt = result.getPlayedAt() != null ? result.getPlayedAt() : LocalDateTime.now();
+        addToWindows(result.getUserId(), result.getScore(), playedAt.toLocalDate());
+    }
+
+    /**
+     * Take a user off every board, e.g. once their account is found to be gone.
+     */
+    public void forget(String userId) {
+        allTime.remove(userId);
+        week.remove(userId);
+        month.remove(userId);
+    }
+
+    /**
+     * Board for "all-time", "month" or (by default) "week".
+     */
+    public RankedScoreBoard board(String timeRange) {
+        if ("all-time".equalsIgnoreCase(timeRange)) {
+            return allTime;
+        }
+        if ("month".equalsIgnoreCase(timeRange)) {
+            return month.board();
+        }
+        return week.board();
+    }
+
+    private void addToWindows(String userId, long score, LocalDate day) {
+        week.add(userId, score, day);
+        month.add(userId, score, day);
+    }
+}
@@ -0,0 +1,269 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Skill-based matchmaking for arena rooms.
+ *
+ * Enqueueing only appends to a lock-free queue. A periodic tick drains it into
+ * a pool sorted by level and groups neighbours whose levels fall within a band
+ * that widens the longer the oldest of them has waited. Matched players get a
+ * server-assigned room id on /topic/arena/match/{userId} and join it as usual.
+ */
+@Service
+public class ArenaMatchmaker {
+    private static final Logger log = LoggerFactory.getLogger(ArenaMatchmaker.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ScheduledExecutorService scheduler;
+    private final ArenaLeaderboard arenaLeaderboard;
+    private final long tickMillis;
+    private final int roomSize;
+    private final double baseBand;
+    private final double bandPerSecond;
+    private final double maxBand;
+
+    private final ConcurrentLinkedQueue<Ticket> incoming = new ConcurrentLinkedQueue<>();
+    // Latest ticket per user, so a re-queue or dequeue can retire the old one
+    private final Map<String, Ticket> waiting = new ConcurrentHashMap<>();
+    // Only touched by the tick, which never overlaps itself
+    private List<Ticket> pool = new ArrayList<>();
+    private final AtomicLong roomSequence = new AtomicLong();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder matchedPlayers = new LongAdder();
+    private final LongAdder totalWaitMillis = new LongAdder();
+    private final LongAccumulator maxWaitMillis = new LongAccumulator(Math::max, 0);
+
+    public ArenaMatchmaker(SimpMessagingTemplate messagingTemplate,
+                           ScheduledExecutorService arenaScheduler,
+                           ArenaLeaderboard arenaLeaderboard,
+                           @Value("${arena.match.tick-ms:250}") long tickMillis,
+                           @Value("${arena.match.room-size:2}") int roomSize,
+                           @Value("${arena.match.band:1.0}") double baseBand,
+                           @Value("${arena.match.band-per-second:0.5}") double bandPerSecond,
+                           @Value("${arena.match.max-band:10.0}") double maxBand) {
+        this.messagingTemplate = messagingTemplate;
+        this.scheduler = arenaScheduler;
+        this.arenaLeaderboard = arenaLeaderboard;
+        this.tickMillis = tickMillis;
+        this.roomSize = Math.max(2, roomSize);
+        this.baseBand = baseBand;
+        this.bandPerSecond = bandPerSecond;
+        this.maxBand = maxBand;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startTicking() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                tick(System.currentTimeMillis());
+            } catch (Exception e) {
+                log.error("Matchmaking tick failed: {}", e.getMessage(), e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void enqueue(ArenaMessage msg, String sessionId) {
+        if (msg.getUserId() == null) {
+            return;
+        }
+        long xp = arenaLeaderboard.board("all-time").score(msg.getUserId()).orElse(0);
+        Ticket ticket = new Ticket(msg.getUserId(), sessionId, msg.getTopic(), msg.getDifficulty(),
+                level(xp), System.currentTimeMillis());
+
+        Ticket previous = waiting.put(ticket.userId, ticket);
+        if (previous != null) {
+            previous.claim();
+        }
+        incoming.offer(ticket);
+        enqueued.increment();
+
+        ArenaMessage queued = new ArenaMessage();
+        queued.setUserId(ticket.userId);
+        queued.setAction("QUEUED");
+        send(ticket.userId, queued);
+    }
+
+    public void dequeue(String userId) {
+        Ticket ticket = waiting.remove(userId);
+        if (ticket != null && ticket.claim()) {
+            dequeued.increment();
+        }
+    }
+
+    // A dropped connection takes its tickets out of the queue
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String sessionId = event.getSessionId();
+        waiting.values().removeIf(ticket -> sessionId.equals(ticket.sessionId) && ticket.claim());
+    }
+
+    public Map<String, Object> stats() {
+        long players = matchedPlayers.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", waiting.size());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("dequeued", dequeued.sum());
+        stats.put("matches", matches.sum());
+        stats.put("matchedPlayers", players);
+        stats.put("avgTimeToMatchMs", players == 0 ? 0 : totalWaitMillis.sum() / players);
+        stats.put("maxTimeToMatchMs", maxWaitMillis.get());
+        return stats;
+    }
+
+    void tick(long now) {
+        for (Ticket ticket; (ticket = incoming.poll()) != null; ) {
+            pool.add(ticket);
+        }
+        pool.removeIf(ticket -> ticket.isClaimed() || waiting.get(ticket.userId) != ticket);
+        if (pool.size() < roomSize) {
+            return;
+        }
+        pool.sort(Comparator.comparingDouble(Ticket::level));
+
+        List<Ticket> unmatched = new ArrayList<>();
+        int i = 0;
+        while (i < pool.size()) {
+            if (i + roomSize > pool.size()) {
+                unmatched.add(pool.get(i++));
+                continue;
+            }
+            List<Ticket> group = pool.subList(i, i + roomSize);
+            if (withinBand(group, now) && claimAll(group)) {
+                match(group, now);
+                i += roomSize;
+            } else {
+                Ticket first = pool.get(i++);
+                if (!first.isClaimed()) {
+                    unmatched.add(first);
+                }
+            }
+        }
+        pool = unmatched;
+    }
+
+    // Sorted group: the spread is last minus first; the longest waiter sets how wide it may be
+    private boolean withinBand(List<Ticket> group, long now) {
+        long oldest = now;
+        for (Ticket ticket : group) {
+            oldest = Math.min(oldest, ticket.enqueuedAt);
+        }
+        double band = Math.min(maxBand, baseBand + bandPerSecond * (now - oldest) / 1000.0);
+        return group.get(group.size() - 1).level - group.get(0).level <= band;
+    }
+
+    // A player may have dequeued or re-queued since the last tick; back out and let the rest wait
+    private boolean claimAll(List<Ticket> group) {
+        for (int j = 0; j < group.size(); j++) {
+            Ticket ticket = group.get(j);
+            if (!ticket.claim() || waiting.get(ticket.userId) != ticket) {
+                for (int k = 0; k < j; k++) {
+                    group.get(k).release();
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void match(List<Ticket> group, long now) {
+        String roomId = "match-" + Long.toString(now, 36) + "-" + roomSequence.incrementAndGet();
+        Ticket oldest = group.get(0);
+        List<String> players = new ArrayList<>(group.size());
+        for (Ticket ticket : group) {
+            players.add(ticket.userId);
+            if (ticket.enqueuedAt < oldest.enqueuedAt) {
+                oldest = ticket;
+            }
+        }
+
+        for (Ticket ticket : group) {
+            waiting.remove(ticket.userId, ticket);
+            long waited = now - ticket.enqueuedAt;
+            totalWaitMillis.add(waited);
+            maxWaitMillis.accumulate(waited);
+
+            ArenaMessage matched = new ArenaMessage();
+            matched.setRoomId(roomId);
+            matched.setUserId(ticket.userId);
+            matched.setAction("MATCHED");
+            matched.setPlayers(players);
+            matched.setTopic(oldest.topic);
+            matched.setDifficulty(oldest.difficulty);
+            send(ticket.userId, matched);
+        }
+        matches.increment();
+        matchedPlayers.add(group.size());
+        log.debug("Matched {} into room {}", players, roomId);
+    }
+
+    // Same curve as the level shown on the leaderboard, kept fractional for finer pairing
+    static double level(long xp) {
+        return Math.sqrt(Math.max(0, xp)) / 5 + 1;
+    }
+
+    private void send(String userId, ArenaMessage msg) {
+        messagingTemplate.convertAndSend("/topic/arena/match/" + userId, msg);
+    }
+
+    private static final class Ticket {
+        final String userId;
+        final String sessionId;
+        final String topic;
+        final String difficulty;
+        final double level;
+        final long enqueuedAt;
+        // Set once the ticket is matched or withdrawn
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Ticket(String userId, String sessionId, String topic, String difficulty, double level, long enqueuedAt) {
+            this.userId = userId;
+            this.sessionId = sessionId;
+            this.topic = topic;
+            this.difficulty = difficulty;
+            this.level = level;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        double level() {
+            return level;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void release() {
+            claimed.set(false);
+        }
+
+        boolean isClaimed() {
+            return claimed.get();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaResult;
+
+import java.util.Map;
+
+/**
+ * Published whenever an {@link ArenaResult} is saved. {@code newXpTotal} is the
+ * user's all-time XP after the result, or null when the result did not award XP.
+ * {@code outcomes} maps each answered question id to whether it was answered
+ * correctly; it is empty when the result was reported without per-question detail.
+ */
+public record ArenaResultRecordedEvent(ArenaResult result, Integer newXpTotal, Map<Long, Boolean> outcomes) {
+}
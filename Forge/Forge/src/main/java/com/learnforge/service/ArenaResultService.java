@@ -3,25 +3,28 @@ package com.learnforge.service;
 import com.learnforge.model.ArenaResult;
 import com.learnforge.repository.ArenaResultRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class ArenaResultService {
     private final ArenaResultRepository arenaResultRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ArenaTopicLeaderboard arenaTopicLeaderboard;
 
     public ArenaResult saveResult(ArenaResult result) {
         result.setAccuracy((double) result.getScore() / result.getTotalQuestions());
-        return arenaResultRepository.save(result);
+        ArenaResult saved = arenaResultRepository.save(result);
+        eventPublisher.publishEvent(new ArenaResultRecordedEvent(saved, null, Map.of()));
+        return saved;
     }
 
-    public List<ArenaResult> getLeaderboard(String topic) {
-        if (topic != null && !topic.isEmpty()) {
-            return arenaResultRepository.findTop10ByTopicOrderByAccuracyDesc(topic);
-        }
-        return arenaResultRepository.findTop10ByOrderByAccuracyDesc();
+    public List<ArenaResult> getLeaderboard(String topic, String difficulty) {
+        return arenaTopicLeaderboard.top(topic, difficulty);
     }
 }
 
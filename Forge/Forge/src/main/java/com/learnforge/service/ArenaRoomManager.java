@@ -0,0 +1,155 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaMessage;
+import com.learnforge.model.ArenaRoom;
+import com.learnforge.util.StripedExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point for multiplayer arena rooms.
+ *
+ * Every update to a room runs on that room's lane of a {@link StripedExecutor},
+ * so a room's state changes one message at a time without a global lock.
+ * Rooms live in an {@link ArenaRoomStore}; they are created on first join and
+ * evicted when the last player leaves or disconnects. Changes go through the
+ * {@link ArenaRoomUpdater}, so their messages only go out once they are saved.
+ *
+ * Membership goes out as deltas: JOINED / LEFT carry the room's new version.
+ * A client that sees a version gap sends /arena/sync and gets a full
+ * PLAYER_LIST on its own sync topic; joiners get one automatically.
+ */
+@Service
+public class ArenaRoomManager {
+    private static final Logger log = LoggerFactory.getLogger(ArenaRoomManager.class);
+
+    private final ArenaBroadcaster broadcaster;
+    private final StripedExecutor executor;
+    private final ArenaRoundEngine roundEngine;
+    private final ArenaRoomStore roomStore;
+    private final ArenaRoomUpdater updater;
+    // STOMP session id -> (room id -> user id), used to clean up after dropped connections
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    public ArenaRoomManager(ArenaBroadcaster broadcaster,
+                            StripedExecutor arenaRoomExecutor,
+                            ArenaRoundEngine roundEngine,
+                            ArenaRoomStore roomStore,
+                            ArenaRoomUpdater updater) {
+        this.broadcaster = broadcaster;
+        this.executor = arenaRoomExecutor;
+        this.roundEngine = roundEngine;
+        this.roomStore = roomStore;
+        this.updater = updater;
+    }
+
+    public void join(ArenaMessage msg, String sessionId) {
+        if (sessionId != null) {
+            sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(msg.getRoomId(), msg.getUserId());
+        }
+        executor.execute(msg.getRoomId(), () -> updater.update(msg.getRoomId(), msg.getUserId(), true, room -> {
+            log.debug("JOIN received from {} in room {}", msg.getUserId(), msg.getRoomId());
+
+            // Notify everyone a player joined
+            boolean added = room.addPlayer(msg.getUserId());
+            if (added) {
+                msg.setAction("JOINED");
+                msg.setVersion(room.getVersion());
+                broadcaster.send(room.getRoomId(), msg);
+            }
+
+            // The joiner needs the full list once; everyone else applies the delta
+            broadcaster.sendPlayerList(room, msg.getUserId());
+            return added;
+        }));
+    }
+
+    public void leave(ArenaMessage msg, String sessionId) {
+        if (sessionId != null) {
+            Map<String, String> joined = sessions.get(sessionId);
+            if (joined != null) {
+                joined.remove(msg.getRoomId());
+            }
+        }
+        executor.execute(msg.getRoomId(), () -> removePlayer(msg.getRoomId(), msg.getUserId(), msg));
+    }
+
+    public void chat(ArenaMessage msg) {
+        executor.execute(msg.getRoomId(), () -> {
+            msg.setAction("CHAT");
+            msg.setTimestamp(new Date().toString());
+            broadcaster.coalesce(msg.getRoomId(), msg);
+        });
+    }
+
+    /**
+     * Full PLAYER_LIST snapshot for a client that missed a membership version.
+     */
+    public void sync(ArenaMessage msg) {
+        executor.execute(msg.getRoomId(), () -> {
+            ArenaRoom room = roomStore.get(msg.getRoomId());
+            if (room != null) {
+                broadcaster.sendPlayerList(room, msg.getUserId());
+            }
+        });
+    }
+
+    public void answer(ArenaMessage msg) {
+        executor.execute(msg.getRoomId(), () -> updater.update(msg.getRoomId(), msg.getUserId(), false, room -> {
+            if (!room.hasPlayer(msg.getUserId())) {
+                return false;
+            }
+            roundEngine.onAnswer(room, msg);
+            return true;
+        }));
+    }
+
+    public void startGame(ArenaMessage msg) {
+        executor.execute(msg.getRoomId(), () -> updater.update(msg.getRoomId(), msg.getUserId(), false, room -> {
+            if (!room.hasPlayer(msg.getUserId())) {
+                return false;
+            }
+            roundEngine.start(room, msg);
+            return true;
+        }));
+    }
+
+    // A dropped connection counts as leaving, so abandoned rooms get evicted
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> joined = sessions.remove(event.getSessionId());
+        if (joined == null) {
+            return;
+        }
+        joined.forEach((roomId, userId) -> {
+            ArenaMessage msg = new ArenaMessage();
+            msg.setRoomId(roomId);
+            msg.setUserId(userId);
+            executor.execute(roomId, () -> removePlayer(roomId, userId, msg));
+        });
+    }
+
+    // The updater evicts the room if this empties it
+    private void removePlayer(String roomId, String userId, ArenaMessage msg) {
+        updater.update(roomId, null, false, room -> {
+            if (!room.removePlayer(userId)) {
+                return false;
+            }
+
+            msg.setAction("LEFT");
+            msg.setVersion(room.getVersion());
+            broadcaster.send(roomId, msg);
+
+            // The player who left may have been the last one the round was waiting on
+            roundEngine.onPlayerLeft(room);
+            return true;
+        });
+    }
+}
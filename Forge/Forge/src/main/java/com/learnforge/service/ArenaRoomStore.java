@@ -0,0 +1,32 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaRoom;
+
+/**
+ * Where live arena rooms are kept.
+ *
+ * Callers load a room, change it on the room's executor lane and then
+ * {@link #save} it, normally through {@link ArenaRoomUpdater}. The in-process
+ * store hands out the same object every time; a shared store hands out a
+ * fresh copy, so changes only reach other nodes once saved, and a save or
+ * remove based on a copy that another node has since saved throws
+ * {@link org.springframework.orm.ObjectOptimisticLockingFailureException}.
+ * Selected with {@code arena.rooms.store}.
+ */
+public interface ArenaRoomStore {
+
+    /**
+     * @return the room, or null if nobody is in it
+     */
+    ArenaRoom get(String roomId);
+
+    /**
+     * Returns the stored room, storing an empty one first if there is none yet,
+     * so nodes racing to create the same room all end up with the same one.
+     */
+    ArenaRoom getOrCreate(String roomId);
+
+    void save(ArenaRoom room);
+
+    void remove(ArenaRoom room);
+}
@@ -0,0 +1,77 @@
+package com.learnforge.service;
+
+import com.learnforge.repository.ArenaRoomStateRepository;
+import com.learnforge.util.StripedExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks up shared rooms whose round timer was lost.
+ *
+ * Round and intermission timers live only on the node that scheduled them, so
+ * a game whose node went down would otherwise stall for good. Every node
+ * periodically looks for games past their deadline by more than the grace
+ * period and moves them on through the {@link ArenaRoundEngine}; the timer
+ * token and the store's optimistic lock keep a late original timer, or
+ * another node's sweep, from moving the same room twice.
+ */
+@Service
+@ConditionalOnProperty(name = "arena.rooms.store", havingValue = "jdbc")
+public class ArenaRoomSweeper {
+    private static final Logger log = LoggerFactory.getLogger(ArenaRoomSweeper.class);
+
+    private final ArenaRoomStateRepository repository;
+    private final StripedExecutor executor;
+    private final ScheduledExecutorService scheduler;
+    private final ArenaRoundEngine roundEngine;
+    private final ArenaRoomUpdater updater;
+    private final long sweepMillis;
+    private final long graceMillis;
+
+    public ArenaRoomSweeper(ArenaRoomStateRepository repository,
+                            StripedExecutor arenaRoomExecutor,
+                            ScheduledExecutorService arenaScheduler,
+                            ArenaRoundEngine roundEngine,
+                            ArenaRoomUpdater updater,
+                            @Value("${arena.rooms.sweep-ms:5000}") long sweepMillis,
+                            @Value("${arena.rooms.recovery-grace-ms:5000}") long graceMillis) {
+        this.repository = repository;
+        this.executor = arenaRoomExecutor;
+        this.scheduler = arenaScheduler;
+        this.roundEngine = roundEngine;
+        this.updater = updater;
+        this.sweepMillis = sweepMillis;
+        this.graceMillis = graceMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSweeping() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (Exception e) {
+                log.error("Arena room sweep failed: {}", e.getMessage(), e);
+            }
+        }, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void sweep() {
+        for (String roomId : repository.findGamesWithDeadlineBefore(System.currentTimeMillis() - graceMillis)) {
+            executor.execute(roomId, () -> updater.update(roomId, null, false, room -> {
+                boolean recovered = roundEngine.recoverOverdue(room, System.currentTimeMillis(), graceMillis);
+                if (recovered) {
+                    log.info("Recovered arena room {} from a lost round timer", roomId);
+                }
+                return recovered;
+            }));
+        }
+    }
+}
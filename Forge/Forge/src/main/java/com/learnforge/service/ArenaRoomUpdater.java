@@ -0,0 +1,85 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaRoom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies a change to a stored arena room, saving it before anyone hears about it.
+ *
+ * The room's messages are held by the {@link ArenaBroadcaster} while the change
+ * runs and go out only once the store accepted the result. When another node
+ * saved the room first, the held messages and any timer the change set are
+ * dropped and the change runs again on a freshly loaded copy. After
+ * {@value #MAX_ATTEMPTS} lost races it gives up, and the acting player gets a
+ * PLAYER_LIST of the stored room so their client resyncs.
+ *
+ * Must be called on the room's executor lane.
+ */
+@Service
+public class ArenaRoomUpdater {
+    private static final Logger log = LoggerFactory.getLogger(ArenaRoomUpdater.class);
+
+    static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * A change to one room. Rooms it leaves empty are removed from the store.
+     */
+    @FunctionalInterface
+    public interface Change {
+        /**
+         * @return true if the room changed and must be saved; messages go out either way
+         */
+        boolean apply(ArenaRoom room);
+    }
+
+    private final ArenaRoomStore roomStore;
+    private final ArenaBroadcaster broadcaster;
+
+    public ArenaRoomUpdater(ArenaRoomStore roomStore, ArenaBroadcaster broadcaster) {
+        this.roomStore = roomStore;
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * @param userId the player who asked for the change, told to resync if it is
+     *               abandoned; null for server-side changes such as round timers
+     * @param create whether to create the room if it is not stored yet
+     */
+    public void update(String roomId, String userId, boolean create, Change change) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            ArenaRoom room = create ? roomStore.getOrCreate(roomId) : roomStore.get(roomId);
+            if (room == null) {
+                return;
+            }
+            broadcaster.hold(roomId);
+            try {
+                if (change.apply(room)) {
+                    if (room.isEmpty()) {
+                        room.endGame();
+                        roomStore.remove(room);
+                        log.debug("Room {} is empty, evicted", roomId);
+                    } else {
+                        roomStore.save(room);
+                    }
+                }
+                broadcaster.release(roomId);
+                return;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // Only this attempt's copy knows about the timer it set
+                room.cancelTimer();
+                log.debug("Room {} changed on another node, attempt {} of {}", roomId, attempt, MAX_ATTEMPTS);
+            } finally {
+                broadcaster.discard(roomId);
+            }
+        }
+
+        log.warn("Dropped an update to arena room {} after {} conflicting saves", roomId, MAX_ATTEMPTS);
+        ArenaRoom stored = roomStore.get(roomId);
+        if (stored != null && userId != null) {
+            broadcaster.sendPlayerList(stored, userId);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaMessage;
+import com.learnforge.model.ArenaRoom;
+import com.learnforge.model.Question;
+import com.learnforge.util.StripedExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side game loop for multiplayer arena rooms.
+ *
+ * A game is a fixed number of questions drawn from the {@link QuestionBank}.
+ * Each round closes when every player has answered or its deadline fires,
+ * whichever comes first. Deadlines live on one shared scheduler and only hand
+ * the room back to its executor lane, so no thread is held per room.
+ *
+ * All methods taking an {@link ArenaRoom} must run on that room's lane.
+ */
+@Service
+public class ArenaRoundEngine {
+
+    private static final int DEFAULT_ROUNDS = 5;
+    private static final int MAX_ROUNDS = 20;
+    private static final int BASE_POINTS = 100;
+    private static final int MAX_TIME_BONUS = 100;
+
+    private final ArenaBroadcaster broadcaster;
+    private final StripedExecutor executor;
+    private final ScheduledExecutorService scheduler;
+    private final QuestionBank questionBank;
+    private final ArenaRoomUpdater updater;
+    private final long roundMillis;
+    private final long intermissionMillis;
+
+    public ArenaRoundEngine(ArenaBroadcaster broadcaster,
+                            StripedExecutor arenaRoomExecutor,
+                            ScheduledExecutorService arenaScheduler,
+                            QuestionBank questionBank,
+                            ArenaRoomUpdater updater,
+                            @Value("${arena.round.seconds:20}") long roundSeconds,
+                            @Value("${arena.round.intermission-ms:3000}") long intermissionMillis) {
+        this.broadcaster = broadcaster;
+        this.executor = arenaRoomExecutor;
+        this.scheduler = arenaScheduler;
+        this.questionBank = questionBank;
+        this.updater = updater;
+        this.roundMillis = TimeUnit.SECONDS.toMillis(roundSeconds);
+        this.intermissionMillis = intermissionMillis;
+    }
+
+    public void start(ArenaRoom room, ArenaMessage msg) {
+        if (room.isGameInProgress()) {
+            return;
+        }
+
+        int rounds = msg.getRounds() != null ? Math.max(1, Math.min(msg.getRounds(), MAX_ROUNDS)) : DEFAULT_ROUNDS;
+        List<Question> questions = questionBank.sample(msg.getTopic(), null, msg.getDifficulty(), rounds);
+        if (questions.isEmpty()) {
+            ArenaMessage error = new ArenaMessage();
+            error.setRoomId(room.getRoomId());
+            error.setAction("ERROR");
+            error.setMessage("No questions available for this topic and difficulty");
+            send(room, error);
+            return;
+        }
+
+        room.startGame(questions);
+        ArenaMessage started = new ArenaMessage();
+        started.setRoomId(room.getRoomId());
+        started.setAction("GAME_STARTED");
+        started.setTopic(msg.getTopic());
+        started.setDifficulty(msg.getDifficulty());
+        started.setRounds(questions.size());
+        started.setScores(room.getScores());
+        send(room, started);
+
+        nextQuestion(room);
+    }
+
+    public void onAnswer(ArenaRoom room, ArenaMessage msg) {
+        if (!room.isGameInProgress()) {
+            // No game running: just collect answers and close the round once everyone is in
+            if (room.recordAnswer(msg.getUserId(), msg)) {
+                msg.setAction("ANSWERED");
+                broadcaster.coalesce(room.getRoomId(), msg);
+                if (room.allAnswered()) {
+                    ArenaMessage result = new ArenaMessage();
+                    result.setRoomId(room.getRoomId());
+                    result.setAction("ROUND_RESULT");
+                    send(room, result);
+                    room.nextRound();
+                }
+            }
+            return;
+        }
+
+        Question current = room.getCurrentQuestion();
+        long now = System.currentTimeMillis();
+        if (current == null || !room.isRoundOpen() || now > room.getRoundDeadline()
+                || !room.recordAnswer(msg.getUserId(), msg)) {
+            return;
+        }
+
+        // Tell the room who answered without leaking what they answered
+        ArenaMessage answered = new ArenaMessage();
+        answered.setRoomId(room.getRoomId());
+        answered.setUserId(msg.getUserId());
+        answered.setAction("ANSWERED");
+        answered.setRound(room.getQuestionNumber());
+        broadcaster.coalesce(room.getRoomId(), answered);
+
+        int delta = score(current, msg.getAnswer(), room.getRoundStartedAt(), room.getRoundDeadline(), now);
+        if (delta > 0) {
+            ArenaMessage scored = new ArenaMessage();
+            scored.setRoomId(room.getRoomId());
+            scored.setUserId(msg.getUserId());
+            scored.setAction("SCORE_DELTA");
+            scored.setRound(room.getQuestionNumber());
+            scored.setScoreDelta(delta);
+            scored.setScores(Map.of(msg.getUserId(), room.addScore(msg.getUserId(), delta)));
+            broadcaster.coalesce(room.getRoomId(), scored);
+        }
+
+        if (room.allAnswered()) {
+            finishRound(room);
+        }
+    }
+
+    public void onPlayerLeft(ArenaRoom room) {
+        if (room.isGameInProgress() && room.isRoundOpen() && room.allAnswered()) {
+            finishRound(room);
+        }
+    }
+
+    /**
+     * Moves on a game whose round or intermission timer is at least {@code graceMillis}
+     * overdue, as when the node that scheduled it went down. Whichever of this and the
+     * original timer runs first replaces the room's timer token, so the other finds
+     * itself stale and does nothing.
+     *
+     * @return true if the room changed
+     */
+    public boolean recoverOverdue(ArenaRoom room, long now, long graceMillis) {
+        if (!room.isGameInProgress()) {
+            return false;
+        }
+        if (room.isRoundOpen()) {
+            if (now < room.getRoundDeadline() + graceMillis) {
+                return false;
+            }
+            finishRound(room);
+            return true;
+        }
+        // A round that closed early started its intermission before the deadline
+        if (room.isEmpty() || now < room.getRoundDeadline() + intermissionMillis + graceMillis) {
+            return false;
+        }
+        nextQuestion(room);
+        return true;
+    }
+
+    /**
+     * Correct answers earn base points plus a bonus for the share of the round left on the clock.
+     */
+    static int score(Question question, String answer, long startedAt, long deadline, long answeredAt) {
+        if (answer == null || question.getCorrectAnswer() == null
+                || !question.getCorrectAnswer().equalsIgnoreCase(answer.trim())) {
+            return 0;
+        }
+        long window = Math.max(1, deadline - startedAt);
+        long remaining = Math.max(0, deadline - answeredAt);
+        return BASE_POINTS + (int) (MAX_TIME_BONUS * remaining / window);
+    }
+
+    private void nextQuestion(ArenaRoom room) {
+        long now = System.currentTimeMillis();
+        Question question = room.advanceQuestion(now, now + roundMillis);
+
+        ArenaMessage msg = new ArenaMessage();
+        msg.setRoomId(room.getRoomId());
+        msg.setAction("QUESTION");
+        msg.setRound(room.getQuestionNumber());
+        msg.setQuestion(withoutAnswer(question));
+        msg.setDeadline(room.getRoundDeadline());
+        send(room, msg);
+
+        schedule(room, roundMillis, current -> {
+            if (current.isGameInProgress() && current.isRoundOpen()) {
+                finishRound(current);
+            }
+        });
+    }
+
+    private void finishRound(ArenaRoom room) {
+        room.closeRound();
+        Question question = room.getCurrentQuestion();
+
+        ArenaMessage result = new ArenaMessage();
+        result.setRoomId(room.getRoomId());
+        result.setAction("ROUND_RESULT");
+        result.setRound(room.getQuestionNumber());
+        result.setCorrectAnswer(question.getCorrectAnswer());
+        result.setMessage(question.getExplanation());
+        result.setScores(room.getScores());
+        send(room, result);
+
+        if (!room.hasNextQuestion()) {
+            ArenaMessage over = new ArenaMessage();
+            over.setRoomId(room.getRoomId());
+            over.setAction("GAME_OVER");
+            over.setScores(room.getScores());
+            send(room, over);
+            room.endGame();
+            return;
+        }
+
+        schedule(room, intermissionMillis, current -> {
+            if (current.isGameInProgress() && !current.isEmpty()) {
+                nextQuestion(current);
+            }
+        });
+    }
+
+    /**
+     * Replaces the room's pending timer. The task runs on the room's lane against
+     * the room as currently stored, and only if no newer timer was set or
+     * cancelled in the meantime, on this node or another.
+     */
+    private void schedule(ArenaRoom room, long delayMillis, Consumer<ArenaRoom> task) {
+        long token = room.newTimerToken();
+        String roomId = room.getRoomId();
+        ScheduledFuture<?> timer = scheduler.schedule(() -> executor.execute(roomId, () ->
+                updater.update(roomId, null, false, current -> {
+                    if (!current.isCurrentTimer(token)) {
+                        return false;
+                    }
+                    task.accept(current);
+                    return true;
+                })), delayMillis, TimeUnit.MILLISECONDS);
+        room.setTimer(timer);
+    }
+
+    // Players get the question and options only; the answer goes out with ROUND_RESULT
+    private static Question withoutAnswer(Question q) {
+        return Question.builder()
+                .id(q.getId())
+                .questionText(q.getQuestionText())
+                .optionA(q.getOptionA())
+                .optionB(q.getOptionB())
+                .optionC(q.getOptionC())
+                .optionD(q.getOptionD())
+                .topic(q.getTopic())
+                .subtopic(q.getSubtopic())
+                .difficulty(q.getDifficulty())
+                .build();
+    }
+
+    private void send(ArenaRoom room, ArenaMessage msg) {
+        broadcaster.send(room.getRoomId(), msg);
+    }
+}
@@ -4,8 +4,10 @@ import com.learnforge.model.Question;
 import com.learnforge.entity.UserProgress;
 import com.learnforge.repository.QuestionRepository;
 import com.learnforge.repository.UserProgressRepository;
+import com.learnforge.util.RankedScoreBoard;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -22,26 +24,36 @@ public class ArenaService {
     @Autowired
     private UserProgressRepository userProgressRepository;
 
+    @Autowired
+    private QuestionBank questionBank;
+
     public List<Question> getRandomQuestions(int count) {
-        return questionRepository.findRandomQuestions(count);
+        return questionBank.sample(null, null, null, count);
     }
 
-    public Map<String, Object> evaluateAnswers(String userId, Map<Long, String> submittedAnswers) {
+    /**
+     * Score a submission. Topic and difficulty are taken from the request when
+     * given, otherwise from the questions that were answered.
+     */
+    @Transactional
+    public Map<String, Object> evaluateAnswers(String userId, String topic, String difficulty,
+                                               Map<Long, String> submittedAnswers) {
         int correct = 0;
         int total = submittedAnswers.size();
         int xpEarned = 0;
 
+        // Serve answer keys from the question bank, one query for anything it misses
+        Map<Long, String> answerKeys = loadAnswerKeys(submittedAnswers.keySet());
+
         // Calculate Score
+        Map<Long, Boolean> outcomes = new HashMap<>(submittedAnswers.size() * 2);
         for (Map.Entry<Long, String> entry : submittedAnswers.entrySet()) {
-            Long questionId = entry.getKey();
-            String userAnswer = entry.getValue();
-
-            Optional<Question> questionOpt = questionRepository.findById(questionId);
-            if (questionOpt.isPresent()) {
-                if (questionOpt.get().getCorrectAnswer().equalsIgnoreCase(userAnswer)) {
-                    correct++;
-                    xpEarned += 10;
-                }
+            String correctAnswer = answerKeys.get(entry.getKey());
+            boolean isCorrect = correctAnswer != null && correctAnswer.equalsIgnoreCase(entry.getValue());
+            outcomes.put(entry.getKey(), isCorrect);
+            if (isCorrect) {
+                correct++;
+                xpEarned += 10;
             }
         }
 
@@ -56,8 +68,10 @@ public class ArenaService {
         result.setTotalQuestions(total);
         result.setAccuracy(total > 0 ? (double) correct / total * 100 : 0);
         result.setPlayedAt(LocalDateTime.now());
-        // result.setTopic(...) // requires passing topic from controller if needed,
-        // omitting for now
+        result.setTopic(topic != null && !topic.isBlank() ? topic
+                : mostCommon(submittedAnswers.keySet(), Question::getTopic));
+        result.setDifficulty(difficulty != null && !difficulty.isBlank() ? difficulty
+                : mostCommon(submittedAnswers.keySet(), Question::getDifficulty));
         arenaResultRepository.save(result);
 
         // 2. Update Aggregate User Progress
@@ -77,6 +91,8 @@ public class ArenaService {
         progress.setLastPlayed(LocalDateTime.now());
         userProgressRepository.save(progress);
 
+        eventPublisher.publishEvent(new ArenaResultRecordedEvent(result, progress.getXpPoints(), outcomes));
+
         Map<String, Object> response = new HashMap<>();
         response.put("correctAnswers", correct);
         response.put("totalQuestions", total);
@@ -86,6 +102,38 @@ public class ArenaService {
         return response;
     }
 
+    private Map<Long, String> loadAnswerKeys(Collection<Long> questionIds) {
+        Map<Long, String> answerKeys = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : questionIds) {
+            Optional<Question> cached = questionBank.get(id);
+            if (cached.isPresent()) {
+                answerKeys.put(id, cached.get().getCorrectAnswer());
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return answerKeys;
+        }
+        for (Object[] row : questionRepository.findAnswerKeys(missing)) {
+            answerKeys.put((Long) row[0], (String) row[1]);
+        }
+        return answerKeys;
+    }
+
+    private String mostCommon(Collection<Long> questionIds,
+                              java.util.function.Function<Question, String> attribute) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Long id : questionIds) {
+            questionBank.get(id).map(attribute).ifPresent(value -> counts.merge(value, 1, Integer::sum));
+        }
+        return counts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
     public Optional<UserProgress> getUserProgress(String userId) {
         return userProgressRepository.findByUserId(userId);
     }
@@ -93,72 +141,108 @@ public class ArenaService {
     @Autowired
     private com.learnforge.repository.UserRepository userRepository;
 
+    @Autowired
+    private ArenaLeaderboard arenaLeaderboard;
+
+    @Autowired
+    private org.springframework.context.ApplicationEventPublisher eventPublisher;
+
+    private static final int LEADERBOARD_SIZE = 50;
+
+    /**
+     * The top {@value #LEADERBOARD_SIZE}. Ranks come from the board, as in
+     * {@link #getUserRank} and {@link #getLeaderboardAround}: tied scores share a
+     * rank (1, 2, 2, 4) and only users with an account are counted.
+     */
     public List<com.learnforge.dto.LeaderboardEntryDto> getLeaderboard(String timeRange) {
+        RankedScoreBoard board = arenaLeaderboard.board(timeRange);
         List<com.learnforge.dto.LeaderboardEntryDto> leaderboard = new ArrayList<>();
+        Iterator<RankedScoreBoard.Entry> ranked = board.descending();
 
-        // 1. Fetch Raw Data (UserId + XP)
-        Map<String, Long> userScores = new HashMap<>();
-
-        if ("all-time".equalsIgnoreCase(timeRange)) {
-            List<UserProgress> allProgress = userProgressRepository.findAll();
-            for (UserProgress p : allProgress) {
-                userScores.put(p.getUserId(), (long) p.getXpPoints());
-            }
-        } else {
-            LocalDateTime startDate = LocalDateTime.now();
-            if ("week".equalsIgnoreCase(timeRange)) {
-                startDate = startDate.minusDays(7);
-            } else if ("month".equalsIgnoreCase(timeRange)) {
-                startDate = startDate.minusDays(30);
+        // Users whose account is gone are dropped, so keep pulling batches until the board is full
+        while (leaderboard.size() < LEADERBOARD_SIZE && ranked.hasNext()) {
+            List<RankedScoreBoard.Entry> batch = new ArrayList<>();
+            while (ranked.hasNext() && batch.size() < LEADERBOARD_SIZE - leaderboard.size()) {
+                batch.add(ranked.next());
             }
+            leaderboard.addAll(toRankedEntries(board, batch));
+        }
+
+        return leaderboard;
+    }
+
+    /**
+     * A user's own leaderboard entry, ranked in O(log maxScore) without scanning the board.
+     * The rank is the one {@link #getLeaderboard} shows.
+     */
+    public Optional<com.learnforge.dto.LeaderboardEntryDto> getUserRank(String userId, String timeRange) {
+        RankedScoreBoard board = arenaLeaderboard.board(timeRange);
+        OptionalLong score = board.score(userId);
+        if (score.isEmpty()) {
+            return Optional.empty();
+        }
+        return toRankedEntries(board, List.of(new RankedScoreBoard.Entry(userId, score.getAsLong())))
+                .stream().findFirst();
+    }
+
+    /**
+     * Entries within {@code window} places of the user, including the user,
+     * ranked as in {@link #getLeaderboard}.
+     */
+    public List<com.learnforge.dto.LeaderboardEntryDto> getLeaderboardAround(String userId, String timeRange, int window) {
+        RankedScoreBoard board = arenaLeaderboard.board(timeRange);
+        return toRankedEntries(board, board.around(userId, window));
+    }
 
-            List<Object[]> results = arenaResultRepository.findLeaderboardSince(startDate);
-            for (Object[] row : results) {
-                String uId = (String) row[0];
-                Long score = (Long) row[1];
-                userScores.put(uId, score);
+    // Entries without an account are taken off the boards first, so the ranks handed out never count them
+    private List<com.learnforge.dto.LeaderboardEntryDto> toRankedEntries(RankedScoreBoard board,
+                                                                       List<RankedScoreBoard.Entry> entries) {
+        Map<String, com.learnforge.entity.User> users = findUsers(entries);
+        for (RankedScoreBoard.Entry entry : entries) {
+            if (!users.containsKey(entry.userId())) {
+                arenaLeaderboard.forget(entry.userId());
             }
         }
 
-        // 2. Sort by Score DESC
-        List<Map.Entry<String, Long>> sortedEntries = new ArrayList<>(userScores.entrySet());
-        sortedEntries.sort((e1, e2) -> e2.getValue().compareTo(e1.getValue()));
-
-        // 3. Limit to Top 50 and Enhance with User Details
-        int rank = 1;
-        for (Map.Entry<String, Long> entry : sortedEntries) {
-            if (rank > 50)
-                break;
-
-            String uId = entry.getKey();
-            Long xp = entry.getValue();
-
-            Optional<com.learnforge.entity.User> userOpt = userRepository.findById(uId);
-            if (userOpt.isPresent()) {
-                com.learnforge.entity.User u = userOpt.get();
-                com.learnforge.dto.LeaderboardEntryDto dto = new com.learnforge.dto.LeaderboardEntryDto();
-
-                dto.setRank(rank);
-                dto.setName(u.getName());
-                dto.setUsername("@" + u.getName().toLowerCase().replace(" ", "")); // simple generation
-                dto.setAvatar(u.getAvatarUrl() != null ? u.getAvatarUrl()
-                        : "https://ui-avatars.com/api/?name=" + u.getName());
-                dto.setXp(xp);
-
-                // Simple Level Logic: Level = sqrt(XP) / 10 + 1
-                int level = (int) (Math.sqrt(xp) / 5) + 1;
-                dto.setLevel(level);
-
-                dto.setStreak(0); // placeholder, would need UserProgress lookup for streak
-                dto.setBadge(getBadgeForRank(rank));
-                dto.setProgress((int) (xp % 100)); // simplified progress
-
-                leaderboard.add(dto);
-                rank++;
+        List<com.learnforge.dto.LeaderboardEntryDto> result = new ArrayList<>();
+        for (RankedScoreBoard.Entry entry : entries) {
+            com.learnforge.entity.User u = users.get(entry.userId());
+            if (u != null) {
+                result.add(toLeaderboardEntry(u, entry.score(), board.rankOf(entry.score())));
             }
         }
+        return result;
+    }
 
-        return leaderboard;
+    // One IN query for the whole page instead of a findById per row
+    private Map<String, com.learnforge.entity.User> findUsers(List<RankedScoreBoard.Entry> entries) {
+        List<String> ids = entries.stream().map(RankedScoreBoard.Entry::userId).toList();
+        Map<String, com.learnforge.entity.User> users = new HashMap<>();
+        for (com.learnforge.entity.User u : userRepository.findAllById(ids)) {
+            users.put(u.getUserId(), u);
+        }
+        return users;
+    }
+
+    private com.learnforge.dto.LeaderboardEntryDto toLeaderboardEntry(com.learnforge.entity.User u, long xp, int rank) {
+        com.learnforge.dto.LeaderboardEntryDto dto = new com.learnforge.dto.LeaderboardEntryDto();
+
+        dto.setRank(rank);
+        dto.setName(u.getName());
+        dto.setUsername("@" + u.getName().toLowerCase().replace(" ", "")); // simple generation
+        dto.setAvatar(u.getAvatarUrl() != null ? u.getAvatarUrl()
+                : "https://ui-avatars.com/api/?name=" + u.getName());
+        dto.setXp(xp);
+
+        // Simple Level Logic: Level = sqrt(XP) / 10 + 1
+        int level = (int) (Math.sqrt(xp) / 5) + 1;
+        dto.setLevel(level);
+
+        dto.setStreak(0); // placeholder, would need UserProgress lookup for streak
+        dto.setBadge(getBadgeForRank(rank));
+        dto.setProgress((int) (xp % 100)); // simplified progress
+
+        return dto;
     }
 
     private String getBadgeForRank(int rank) {
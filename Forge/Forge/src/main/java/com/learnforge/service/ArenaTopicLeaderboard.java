@@ -0,0 +1,105 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaResult;
+import com.learnforge.repository.ArenaResultRepository;
+import com.learnforge.util.TopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Best arena results by accuracy, sharded by (topic, difficulty).
+ *
+ * Every result is offered to four shards: its exact (topic, difficulty), its
+ * topic across difficulties, its difficulty across topics, and the global
+ * shard, so any combination of filters is served by one map lookup.
+ */
+@Service
+public class ArenaTopicLeaderboard {
+    private static final Logger log = LoggerFactory.getLogger(ArenaTopicLeaderboard.class);
+
+    private static final int SIZE = 10;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final String ANY = "*";
+
+    // Highest accuracy first; on ties whoever got there first keeps the spot
+    private static final Comparator<ArenaResult> ORDER = Comparator
+            .comparingDouble(ArenaResult::getAccuracy).reversed()
+            .thenComparing(ArenaResult::getPlayedAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(ArenaResult::getId, Comparator.nullsLast(Comparator.<Long>naturalOrder()));
+
+    private final ArenaResultRepository arenaResultRepository;
+    private final Map<String, TopK<ArenaResult>> shards = new ConcurrentHashMap<>();
+
+    public ArenaTopicLeaderboard(ArenaResultRepository arenaResultRepository) {
+        this.arenaResultRepository = arenaResultRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            shards.clear();
+            PageRequest pageRequest = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+            Page<ArenaResult> page;
+            do {
+                page = arenaResultRepository.findAll(pageRequest);
+                page.forEach(this::offer);
+                pageRequest = pageRequest.next();
+            } while (page.hasNext());
+            log.info("Arena topic leaderboards rebuilt: {} shards", shards.size());
+        } catch (Exception e) {
+            log.error("Failed to rebuild arena topic leaderboards: {}", e.getMessage(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultRecorded(ArenaResultRecordedEvent event) {
+        offer(event.result());
+    }
+
+    /**
+     * Top results for the filters given; null or blank filters match anything.
+     */
+    public List<ArenaResult> top(String topic, String difficulty) {
+        TopK<ArenaResult> shard = shards.get(key(filter(topic), filter(difficulty)));
+        return shard == null ? List.of() : shard.snapshot();
+    }
+
+    private void offer(ArenaResult result) {
+        String topic = normalize(result.getTopic());
+        String difficulty = normalize(result.getDifficulty());
+        shard(key(topic, difficulty)).offer(result);
+        shard(key(topic, ANY)).offer(result);
+        shard(key(ANY, difficulty)).offer(result);
+        shard(key(ANY, ANY)).offer(result);
+    }
+
+    private TopK<ArenaResult> shard(String key) {
+        return shards.computeIfAbsent(key, k -> new TopK<>(SIZE, ORDER));
+    }
+
+    private static String key(String topic, String difficulty) {
+        return topic + '|' + difficulty;
+    }
+
+    private static String filter(String value) {
+        return value == null || value.isBlank() ? ANY : normalize(value);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,151 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.Suggestion;
+import com.learnforge.entity.Course;
+import com.learnforge.repository.CourseRepository;
+import com.learnforge.repository.LessonRepository;
+import com.learnforge.repository.QuestionRepository;
+import com.learnforge.util.PrefixTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over course titles, lesson names and question topics.
+ *
+ * Suggestions live in an immutable {@link PrefixTrie} that is rebuilt from
+ * the repositories in the background whenever the catalog changes, then
+ * swapped in. Lookups only read the current trie and never reach the database.
+ */
+@Service
+public class AutocompleteService {
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteService.class);
+
+    private static final int TOP_N = 10;
+    // Lessons rank below their course, which is usually what the user is after
+    private static final double LESSON_FACTOR = 0.5;
+
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final QuestionRepository questionRepository;
+    private final ExecutorService executor;
+
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private volatile PrefixTrie<Suggestion> trie = PrefixTrie.empty();
+
+    public AutocompleteService(CourseRepository courseRepository,
+                               LessonRepository lessonRepository,
+                               QuestionRepository questionRepository,
+                               ExecutorService catalogRebuildExecutor) {
+        this.courseRepository = courseRepository;
+        this.lessonRepository = lessonRepository;
+        this.questionRepository = questionRepository;
+        this.executor = catalogRebuildExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        requestRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        requestRebuild();
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return trie.top(prefix, Math.max(1, Math.min(limit, TOP_N)));
+    }
+
+    /**
+     * Queues a rebuild unless one is already waiting; a burst of writes costs one rebuild.
+     */
+    public void requestRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            rebuildQueued.set(false);
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("Autocomplete rebuild failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        List<PrefixTrie.Entry<Suggestion>> entries = new ArrayList<>();
+
+        Map<Long, Double> courseWeights = new HashMap<>();
+        for (Course c : courseRepository.findAll()) {
+            double weight = courseWeight(c);
+            courseWeights.put(c.getCourseId(), weight);
+            entries.add(entry(new Suggestion(c.getCourseTitle(), "course", c.getCourseId(), c.getCourseId()),
+                    weight, c.getCourseTitle()));
+        }
+
+        for (Object[] row : lessonRepository.findAllNames()) {
+            Long lessonId = (Long) row[0];
+            String name = (String) row[1];
+            Long courseId = (Long) row[2];
+            double weight = courseWeights.getOrDefault(courseId, 1.0) * LESSON_FACTOR;
+            entries.add(entry(new Suggestion(name, "lesson", lessonId, courseId), weight, name));
+        }
+
+        // Rows are per (topic, subtopic); a subtopic name shared by several topics is one suggestion
+        Map<String, Long> topicCounts = new HashMap<>();
+        Map<String, Long> subtopicCounts = new HashMap<>();
+        for (Object[] row : questionRepository.countByTopicAndSubtopic()) {
+            String topic = (String) row[0];
+            String subtopic = (String) row[1];
+            long count = (Long) row[2];
+            if (topic != null && !topic.isBlank()) {
+                topicCounts.merge(topic, count, Long::sum);
+            }
+            if (subtopic != null && !subtopic.isBlank()) {
+                subtopicCounts.merge(subtopic, count, Long::sum);
+            }
+        }
+        topicCounts.forEach((topic, count) ->
+                entries.add(entry(new Suggestion(topic, "topic", null, null), Math.log1p(count), topic)));
+        subtopicCounts.forEach((subtopic, count) ->
+                entries.add(entry(new Suggestion(subtopic, "subtopic", null, null), Math.log1p(count), subtopic)));
+
+        trie = PrefixTrie.build(entries, TOP_N);
+        log.info("Autocomplete rebuilt: {} suggestions in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    // Popularity damped by log so one huge course does not crowd out the rest; ratings run 0-5
+    static double courseWeight(Course c) {
+        int students = c.getStudents() != null ? Math.max(0, c.getStudents()) : 0;
+        double rating = c.getRating() != null ? Math.max(0, c.getRating()) : 0;
+        return (1 + Math.log1p(students)) * (1 + rating);
+    }
+
+    // Reachable from the start of any word, so "struct" finds "Data Structures"
+    private static PrefixTrie.Entry<Suggestion> entry(Suggestion suggestion, double weight, String text) {
+        String normalized = PrefixTrie.normalize(text);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return new PrefixTrie.Entry<>(suggestion, weight, keys);
+    }
+}
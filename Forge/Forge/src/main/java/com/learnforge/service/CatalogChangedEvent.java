@@ -0,0 +1,8 @@
+package com.learnforge.service;
+
+/**
+ * Published when courses, lessons or the question set change, so derived
+ * read models can rebuild. {@code entity} is "course", "lesson" or "question".
+ */
+public record CatalogChangedEvent(String entity) {
+}
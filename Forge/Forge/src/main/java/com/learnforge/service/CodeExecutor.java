@@ -0,0 +1,24 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.ExecuteRequest;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A backend that runs submitted code. Selected by {@code execution.backend}.
+ *
+ * Results use Judge0's submission shape (stdout, stderr, compile_output,
+ * time, status {id, description}) whichever backend produced them.
+ */
+public interface CodeExecutor {
+
+    CompletableFuture<Map<String, Object>> execute(ExecuteRequest request);
+
+    /**
+     * Backend-specific counters for the stats endpoint.
+     */
+    default Map<String, Object> stats() {
+        return Map.of();
+    }
+}
@@ -0,0 +1,170 @@
+package com.learnforge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.learnforge.entity.Course;
+import com.learnforge.repository.CourseRepository;
+import com.learnforge.repository.LessonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of the public course catalog.
+ *
+ * The catalog (every course plus its lesson count) is held as one immutable
+ * snapshot in course id order, each course already serialized to JSON, with
+ * an ETag derived from those bytes. Pages are cut from it by id.
+ * Course and lesson writes bump a generation counter after commit; the next
+ * read rebuilds once and everyone else keeps serving bytes. Because the ETag
+ * is a content hash, a rebuild that changes nothing keeps the same tag.
+ */
+@Service
+public class CourseCatalogCache {
+    private static final Logger log = LoggerFactory.getLogger(CourseCatalogCache.class);
+
+    /**
+     * {@code lastId} is the id of the page's last course when more follow, else null.
+     */
+    public record Page(byte[] json, Long lastId) {}
+
+    public record Snapshot(long generation, long[] ids, byte[][] items, String etag) {
+
+        public int courseCount() {
+            return ids.length;
+        }
+
+        /**
+         * Up to {@code limit} courses with ids above {@code afterId}, as a JSON array.
+         */
+        public Page page(long afterId, int limit) {
+            int from = Arrays.binarySearch(ids, afterId);
+            from = from >= 0 ? from + 1 : -from - 1;
+            int to = Math.min(ids.length, from + limit);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write('[');
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    out.write(',');
+                }
+                out.writeBytes(items[i]);
+            }
+            out.write(']');
+            return new Page(out.toByteArray(), to < ids.length ? ids[to - 1] : null);
+        }
+
+        /**
+         * True when an If-None-Match header names this snapshot.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong generation = new AtomicLong(1);
+    private volatile Snapshot snapshot;
+
+    public CourseCatalogCache(CourseRepository courseRepository,
+                              LessonRepository lessonRepository,
+                              ObjectMapper objectMapper) {
+        this.courseRepository = courseRepository;
+        this.lessonRepository = lessonRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == generation.get()) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if ("course".equals(event.entity()) || "lesson".equals(event.entity())) {
+            invalidate();
+        }
+    }
+
+    // Single-flight: concurrent readers of a stale snapshot wait for one rebuild
+    private synchronized Snapshot rebuild() {
+        long target = generation.get();
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == target) {
+            return current;
+        }
+
+        List<Course> courses = courseRepository.findAll(Sort.by("courseId"));
+        Map<Long, Long> lessonCounts = new HashMap<>();
+        for (Object[] row : lessonRepository.countGroupedByCourseId()) {
+            lessonCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        long[] ids = new long[courses.size()];
+        byte[][] items = new byte[courses.size()][];
+        try {
+            for (int i = 0; i < courses.size(); i++) {
+                Course course = courses.get(i);
+                ObjectNode node = objectMapper.valueToTree(course);
+                node.put("lessonCount", lessonCounts.getOrDefault(course.getCourseId(), 0L));
+                ids[i] = course.getCourseId();
+                items[i] = objectMapper.writeValueAsBytes(node);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialize course catalog", e);
+        }
+
+        // A write that lands during the rebuild bumps the generation again, so this snapshot is replaced on the next read
+        Snapshot rebuilt = new Snapshot(target, ids, items, etag(items));
+        snapshot = rebuilt;
+        log.debug("Course catalog rebuilt: {} courses, etag {}", ids.length, rebuilt.etag());
+        return rebuilt;
+    }
+
+    private static String etag(byte[][] items) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] item : items) {
+                digest.update(item);
+                digest.update((byte) ',');
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,24 +2,32 @@ package com.learnforge.service;
 
 import com.learnforge.entity.Course;
 import com.learnforge.repository.CourseRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class CourseService {
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final CourseRepository courseRepository;
+    private final SearchService searchService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CourseService(CourseRepository courseRepository) {
+    public CourseService(CourseRepository courseRepository, SearchService searchService,
+                         ApplicationEventPublisher eventPublisher) {
         this.courseRepository = courseRepository;
+        this.searchService = searchService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Get all courses
     public List<Course> getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
-        System.out.println("Found " + courses.size() + " courses in database");
-        return courses;
+        return courseRepository.findAll();
     }
 
     // 🎯 SIMPLIFIED - Get course by ID
@@ -32,17 +40,25 @@ public class CourseService {
 
     // Save course
     public Course saveCourse(Course course) {
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        searchService.indexCourse(saved);
+        eventPublisher.publishEvent(new CatalogChangedEvent("course"));
+        return saved;
     }
 
-    // Search courses
+    // Search courses, best match first, through the search index instead of a LIKE scan
     public List<Course> setCourse(String keyword) {
-        return courseRepository.findByCourseTitleContainingIgnoreCase(keyword);
+        List<Long> ids = searchService.searchIds(keyword, SearchService.COURSE, MAX_SEARCH_RESULTS);
+        List<Course> courses = new ArrayList<>(courseRepository.findAllById(ids));
+        courses.sort(Comparator.comparingInt(c -> ids.indexOf(c.getCourseId())));
+        return courses;
     }
 
     // Delete course
     public void deleteCourse(Long id) {
         courseRepository.deleteById(id);
+        searchService.removeCourse(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent("course"));
     }
 
     // Update course
@@ -57,7 +73,10 @@ public class CourseService {
                     course.setDuration(updatedCourse.getDuration());
                     course.setStudents(updatedCourse.getStudents());
                     course.setRating(updatedCourse.getRating());
-                    return courseRepository.save(course);
+                    Course saved = courseRepository.save(course);
+                    searchService.indexCourse(saved);
+                    eventPublisher.publishEvent(new CatalogChangedEvent("course"));
+                    return saved;
                 })
                 .orElse(null);
     }
@@ -0,0 +1,179 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.ExecuteRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caches finished executions by (language, code hash, stdin hash).
+ *
+ * Bounded LRU with a TTL. Identical requests that arrive while one is still
+ * running share its future, so they cost a single upstream submission. Only
+ * results that rerunning would reproduce are kept: accepted runs, compile
+ * errors and runtime errors. Time limits, internal errors and failed calls
+ * are not cached.
+ */
+@Service
+public class ExecutionResultCache {
+
+    // Judge0 status ids: 3 Accepted, 6 Compilation Error, 7-12 runtime errors
+    private static final Set<Integer> CACHEABLE_STATUSES = Set.of(3, 6, 7, 8, 9, 10, 11, 12);
+
+    private record Key(String language, String codeHash, String stdinHash) {}
+
+    private record Entry(Map<String, Object> result, long expiresAt) {}
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // Access-ordered for LRU; guarded by its own monitor
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<Key, CompletableFuture<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ExecutionResultCache(@Value("${execution.cache.max-entries:1000}") int maxEntries,
+                                @Value("${execution.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ExecutionResultCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The cached result for this request, the in-flight run of an identical
+     * one, or a new run through {@code execute}.
+     */
+    public CompletableFuture<Map<String, Object>> getOrExecute(
+            ExecuteRequest request,
+            Function<ExecuteRequest, CompletableFuture<Map<String, Object>>> execute) {
+        Key key = keyFor(request);
+        Map<String, Object> cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<Map<String, Object>> mine = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            shared.increment();
+            return running;
+        }
+        misses.increment();
+
+        CompletableFuture<Map<String, Object>> run;
+        try {
+            run = execute.apply(request);
+        } catch (RuntimeException e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            return mine;
+        }
+        run.whenComplete((result, e) -> {
+            if (e == null && isCacheable(result)) {
+                store(key, Collections.unmodifiableMap(result));
+            }
+            // Stored before leaving in-flight, so a follow-up request finds one or the other
+            inFlight.remove(key, mine);
+            if (e != null) {
+                mine.completeExceptionally(e);
+            } else {
+                mine.complete(result);
+            }
+        });
+        return mine;
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        long s = shared.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("sharedInFlight", s);
+        stats.put("hitRatio", h + m + s == 0 ? 0.0 : (double) (h + s) / (h + m + s));
+        stats.put("stored", stored.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("inFlight", inFlight.size());
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        return stats;
+    }
+
+    private Map<String, Object> lookup(Key key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() > entry.expiresAt()) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.result();
+        }
+    }
+
+    private void store(Key key, Map<String, Object> result) {
+        synchronized (entries) {
+            entries.put(key, new Entry(result, System.currentTimeMillis() + ttlMillis));
+        }
+        stored.increment();
+    }
+
+    static boolean isCacheable(Map<String, Object> result) {
+        if (result == null || result.containsKey("error")) {
+            return false;
+        }
+        return result.get("status") instanceof Map<?, ?> status
+                && status.get("id") instanceof Number id
+                && CACHEABLE_STATUSES.contains(id.intValue());
+    }
+
+    private static Key keyFor(ExecuteRequest request) {
+        String language = request.getLanguage() == null ? "" : request.getLanguage().trim().toLowerCase(Locale.ROOT);
+        return new Key(language, sha256(request.getCode()), sha256(request.getInput() == null ? "" : request.getInput()));
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaRoom;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rooms held in this JVM only. Every player of a room has to reach the same node.
+ */
+@Service
+@ConditionalOnProperty(name = "arena.rooms.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryArenaRoomStore implements ArenaRoomStore {
+
+    private final Map<String, ArenaRoom> rooms = new ConcurrentHashMap<>();
+
+    @Override
+    public ArenaRoom get(String roomId) {
+        return rooms.get(roomId);
+    }
+
+    @Override
+    public ArenaRoom getOrCreate(String roomId) {
+        return rooms.computeIfAbsent(roomId, ArenaRoom::new);
+    }
+
+    @Override
+    public void save(ArenaRoom room) {
+        // Callers already hold the live object
+    }
+
+    @Override
+    public void remove(ArenaRoom room) {
+        rooms.remove(room.getRoomId(), room);
+    }
+}
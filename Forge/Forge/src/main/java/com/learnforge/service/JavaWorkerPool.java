@@ -0,0 +1,384 @@
+package com.learnforge.service;
+
+import com.learnforge.worker.CappedOutputStream;
+import com.learnforge.worker.JavaWorker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Pool of pre-warmed worker JVMs that run Java submissions for the local backend.
+ *
+ * Each worker is a {@link JavaWorker} process started from a copy of its class
+ * files and kept alive between runs, so a submission skips JVM startup and
+ * javac class loading. A worker serves one submission at a time; the pool
+ * replaces it after any guard violation it reports, after it dies, and after
+ * {@code maxRuns} submissions. Responses arrive on a per-worker Unix socket
+ * and must echo the run's nonce; anything else, including an oversized frame,
+ * retires the worker. Workers start through the executor's {@link ProcessSandbox},
+ * each holding its own sandbox slot for its lifetime. If workers keep failing
+ * to start (for example on a JRE without javac) the pool turns itself off and
+ * the executor falls back to plain javac and java processes.
+ */
+class JavaWorkerPool {
+    private static final Logger log = LoggerFactory.getLogger(JavaWorkerPool.class);
+
+    private static final List<Class<?>> WORKER_CLASSES = List.of(JavaWorker.class, CappedOutputStream.class);
+    private static final int MAX_START_FAILURES = 3;
+    // Worker-side limits fire first; this only catches a worker that stopped answering
+    private static final long KILL_GRACE_MILLIS = 5000;
+    private static final long START_TIMEOUT_SECONDS = 60;
+    private static final long EXIT_WAIT_MILLIS = 500;
+
+    /**
+     * A finished run. {@code statusId} is a Judge0 status id.
+     */
+    record Run(int statusId, int exitCode, long cpuMillis, String stdout, String stderr, String compileOutput) {}
+
+    private final int size;
+    private final int heapMb;
+    private final int maxRuns;
+    private final long cpuLimitMillis;
+    private final long wallLimitMillis;
+    private final int outputLimit;
+    private final String javaHome;
+    private final ProcessSandbox sandbox;
+
+    private final Path classDir;
+    // Most recently used first, so the hottest JIT-warmed worker takes the next run
+    private final BlockingDeque<Worker> idle = new LinkedBlockingDeque<>();
+    private final ExecutorService spawner;
+    private final AtomicInteger workerIds = new AtomicInteger();
+    private final AtomicInteger startFailures = new AtomicInteger();
+    private final AtomicBoolean enabled = new AtomicBoolean(true);
+    private final SecureRandom nonces = new SecureRandom();
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+
+    JavaWorkerPool(int size, int heapMb, int maxRuns, long cpuLimitMillis, long wallLimitMillis, int outputLimit,
+                   String javaHome, ProcessSandbox sandbox) throws IOException {
+        this.size = size;
+        this.heapMb = heapMb;
+        this.maxRuns = maxRuns;
+        this.cpuLimitMillis = cpuLimitMillis;
+        this.wallLimitMillis = wallLimitMillis;
+        this.outputLimit = outputLimit;
+        this.javaHome = javaHome;
+        this.sandbox = sandbox;
+        this.classDir = copyWorkerClasses();
+        this.spawner = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "java-worker-spawner");
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < size; i++) {
+            spawnLater();
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled.get();
+    }
+
+    /**
+     * Runs one submission on an idle worker, waiting for one if all are busy.
+     * Returns null if the pool has been disabled and the caller should fall back.
+     */
+    Run run(String code, String stdin) throws InterruptedException {
+        Worker worker = null;
+        while (worker == null) {
+            if (!enabled.get()) {
+                return null;
+            }
+            worker = idle.pollFirst(1, TimeUnit.SECONDS);
+        }
+        runs.increment();
+
+        Run run;
+        boolean keep;
+        AtomicBoolean killed = new AtomicBoolean();
+        Worker w = worker;
+        CompletableFuture<Void> watchdog = CompletableFuture.runAsync(() -> {
+            killed.set(true);
+            w.process.destroyForcibly();
+        }, CompletableFuture.delayedExecutor(wallLimitMillis + KILL_GRACE_MILLIS, TimeUnit.MILLISECONDS));
+        try {
+            long nonce = nonces.nextLong();
+            w.send(nonce, code, stdin);
+            if (w.in.readLong() != nonce) {
+                throw new IOException("Java worker answered out of sequence");
+            }
+            int status = w.in.readInt();
+            int exitCode = w.in.readInt();
+            long cpuMillis = w.in.readLong();
+            boolean recycle = w.in.readBoolean();
+            String stdout = w.readText();
+            String stderr = w.readText();
+            String compileOutput = w.readText();
+            if (status == JavaWorker.EXITED) {
+                // The submission called System.exit; its status is the process exit code
+                exitCode = w.process.waitFor(KILL_GRACE_MILLIS, TimeUnit.MILLISECONDS) ? w.process.exitValue() : 1;
+                status = exitCode == 0 ? JavaWorker.ACCEPTED : JavaWorker.RUNTIME_ERROR;
+            }
+            run = new Run(status, exitCode, cpuMillis, stdout, stderr, compileOutput);
+            keep = !recycle && ++w.runs < maxRuns;
+        } catch (IOException | RuntimeException e) {
+            // Killed by the watchdog, halted by the submission, or a response we can't trust
+            if (killed.get()) {
+                run = new Run(JavaWorker.TIME_LIMIT_EXCEEDED, 0, 0, "", "", null);
+            } else if (w.process.waitFor(EXIT_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                run = new Run(JavaWorker.RUNTIME_ERROR, w.process.exitValue(), 0, "", "", null);
+            } else {
+                log.warn("Retiring Java worker after a bad response: {}", e.getMessage());
+                run = new Run(JavaWorker.INTERNAL_ERROR, 0, 0, "", "", null);
+            }
+            keep = false;
+        } finally {
+            watchdog.cancel(false);
+        }
+
+        if (keep) {
+            idle.offerFirst(w);
+        } else {
+            retire(w);
+            spawnLater();
+        }
+        return run;
+    }
+
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled.get());
+        stats.put("size", size);
+        stats.put("idle", idle.size());
+        stats.put("runs", runs.sum());
+        stats.put("started", started.sum());
+        stats.put("recycled", recycled.sum());
+        return stats;
+    }
+
+    void shutdown() {
+        enabled.set(false);
+        spawner.shutdownNow();
+        for (Worker w; (w = idle.poll()) != null; ) {
+            retire(w);
+        }
+        deleteQuietly(classDir);
+    }
+
+    private void spawnLater() {
+        if (!enabled.get()) {
+            return;
+        }
+        spawner.execute(() -> {
+            if (!enabled.get()) {
+                return;
+            }
+            try {
+                idle.offerLast(start());
+                startFailures.set(0);
+            } catch (Exception e) {
+                log.warn("Java worker failed to start: {}", e.getMessage());
+                if (startFailures.incrementAndGet() >= MAX_START_FAILURES) {
+                    if (enabled.compareAndSet(true, false)) {
+                        log.warn("Disabling the Java worker pool after {} failed starts", MAX_START_FAILURES);
+                    }
+                } else {
+                    spawnLater();
+                }
+            }
+        });
+    }
+
+    private Worker start() throws IOException, InterruptedException {
+        int id = workerIds.incrementAndGet();
+        int slot = sandbox.acquire();
+        Path workDir = Files.createTempDirectory("forge-java-worker-" + id + "-");
+        Path socket = workDir.resolve("control.sock");
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+
+        // C1 only: javac and short submissions dominate, and C2 would warm up slower and compete for CPU
+        String script = sandbox.limits("-f 65536") + String.join(" ", "\"$JAVA_HOME/bin/java\"",
+                "-Xmx" + heapMb + "m", "-Xss8m", "-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1", "-Xshare:auto",
+                "-cp", classDir.toString(), JavaWorker.class.getName(),
+                String.valueOf(cpuLimitMillis), String.valueOf(wallLimitMillis),
+                String.valueOf(outputLimit), workDir.toString(), socket.toString());
+        Process process;
+        try {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            sandbox.grant(workDir, slot);
+            ProcessBuilder builder = new ProcessBuilder(sandbox.command(slot, script))
+                    .directory(workDir.toFile())
+                    // stdout carries nothing; submissions may scribble on it directly
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(workDir.resolve("worker.log").toFile());
+            Map<String, String> env = builder.environment();
+            env.keySet().retainAll(List.of("PATH", "LANG"));
+            env.put("HOME", workDir.toString());
+            env.put("JAVA_HOME", javaHome);
+            process = builder.start();
+        } catch (IOException e) {
+            server.close();
+            deleteQuietly(workDir);
+            sandbox.release(slot);
+            throw e;
+        }
+        process.getOutputStream().close();
+
+        // Accept exactly one connection, then unlink the socket so nothing else can connect.
+        // Warm-up happens before READY; don't hand out the worker until it is done.
+        CompletableFuture<Worker> ready = CompletableFuture.supplyAsync(() -> {
+            try {
+                SocketChannel channel = server.accept();
+                server.close();
+                Files.deleteIfExists(socket);
+                Worker worker = new Worker(process, workDir, slot, channel);
+                if (worker.in.readInt() != JavaWorker.READY) {
+                    throw new IOException("unexpected handshake");
+                }
+                return worker;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // A worker that dies during startup never connects; fail now instead of at the timeout
+        process.onExit().thenRun(() -> ready.completeExceptionally(
+                new IOException("worker exited with " + process.exitValue())));
+        try {
+            Worker worker = ready.get(START_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            started.increment();
+            log.debug("Java worker {} ready", id);
+            return worker;
+        } catch (Exception e) {
+            process.destroyForcibly();
+            server.close();
+            String output = tail(workDir.resolve("worker.log"));
+            deleteQuietly(workDir);
+            sandbox.release(slot);
+            throw new IOException("worker did not start" + (output.isEmpty() ? "" : ": " + output), e);
+        }
+    }
+
+    // The end of a failed worker's stderr, which goes away with its work directory
+    private static String tail(Path file) {
+        try {
+            String text = Files.readString(file, StandardCharsets.UTF_8).strip();
+            return text.length() > 500 ? text.substring(text.length() - 500) : text;
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private void retire(Worker worker) {
+        recycled.increment();
+        worker.process.destroyForcibly();
+        try {
+            worker.channel.close();
+        } catch (IOException e) {
+            log.debug("Could not close worker channel: {}", e.getMessage());
+        }
+        deleteQuietly(worker.workDir);
+        sandbox.release(worker.slot);
+    }
+
+    // The worker runs from a plain class directory, since the app itself may be a nested boot jar
+    // and the sandbox may hide it; every sandbox uid needs to read the copy
+    private static Path copyWorkerClasses() throws IOException {
+        Path dir = Files.createTempDirectory("forge-java-worker-classes-");
+        Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwxr-xr-x"));
+        for (Class<?> type : WORKER_CLASSES) {
+            String resource = type.getName().replace('.', '/') + ".class";
+            Path target = dir.resolve(resource);
+            Files.createDirectories(target.getParent());
+            try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IOException("Missing class file " + resource);
+                }
+                Files.copy(in, target);
+            }
+        }
+        return dir;
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Could not clean up {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private final class Worker {
+        final Process process;
+        final Path workDir;
+        final int slot;
+        final SocketChannel channel;
+        final DataInputStream in;
+        final DataOutputStream out;
+        int runs;
+
+        Worker(Process process, Path workDir, int slot, SocketChannel channel) {
+            this.process = process;
+            this.workDir = workDir;
+            this.slot = slot;
+            this.channel = channel;
+            this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        }
+
+        void send(long nonce, String code, String stdin) throws IOException {
+            byte[] source = code.getBytes(StandardCharsets.UTF_8);
+            byte[] input = stdin.getBytes(StandardCharsets.UTF_8);
+            out.writeLong(nonce);
+            out.writeInt(source.length);
+            out.write(source);
+            out.writeInt(input.length);
+            out.write(input);
+            out.flush();
+        }
+
+        // Workers cap every stream at outputLimit, so a longer frame is corrupt
+        String readText() throws IOException {
+            int length = in.readInt();
+            if (length < 0 || length > outputLimit) {
+                throw new IOException("Java worker sent a frame of " + length + " bytes");
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
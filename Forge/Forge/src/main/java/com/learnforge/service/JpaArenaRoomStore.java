@@ -0,0 +1,138 @@
+package com.learnforge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnforge.model.ArenaMessage;
+import com.learnforge.model.ArenaRoom;
+import com.learnforge.model.ArenaRoomState;
+import com.learnforge.model.Question;
+import com.learnforge.repository.ArenaRoomStateRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rooms kept in the shared database so any backend node can serve any player.
+ *
+ * Each node still runs a room's updates one at a time on its lane. Between
+ * nodes the row's revision acts as an optimistic lock: a save or remove based
+ * on a stale copy fails, and {@link ArenaRoomUpdater} reloads and tries again.
+ * Rooms are created with an insert that ignores an existing row, so every copy
+ * handed out has a revision to check against.
+ */
+@Service
+@ConditionalOnProperty(name = "arena.rooms.store", havingValue = "jdbc")
+public class JpaArenaRoomStore implements ArenaRoomStore {
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<Long>> LONG_LIST = new TypeReference<>() {};
+    private static final TypeReference<Map<String, String>> STRING_MAP = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Integer>> SCORE_MAP = new TypeReference<>() {};
+
+    private final ArenaRoomStateRepository repository;
+    private final QuestionBank questionBank;
+    private final ObjectMapper mapper;
+
+    public JpaArenaRoomStore(ArenaRoomStateRepository repository, QuestionBank questionBank, ObjectMapper mapper) {
+        this.repository = repository;
+        this.questionBank = questionBank;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public ArenaRoom get(String roomId) {
+        return repository.findById(roomId).map(this::toRoom).orElse(null);
+    }
+
+    @Override
+    public ArenaRoom getOrCreate(String roomId) {
+        ArenaRoom room = get(roomId);
+        if (room != null) {
+            return room;
+        }
+        repository.insertIfAbsent(roomId);
+        return get(roomId);
+    }
+
+    @Override
+    public void save(ArenaRoom room) {
+        ArenaRoomState saved = repository.save(toState(room));
+        room.setStoreRevision(saved.getRevision());
+    }
+
+    @Override
+    public void remove(ArenaRoom room) {
+        // Deleting our copy, not a fresh one, so a player who joined on another node meanwhile is not lost
+        repository.delete(toState(room));
+    }
+
+    private ArenaRoomState toState(ArenaRoom room) {
+        Map<String, String> answers = new HashMap<>();
+        for (ArenaMessage answer : room.getAnswers().values()) {
+            answers.put(answer.getUserId(), answer.getAnswer() != null ? answer.getAnswer() : "");
+        }
+        List<Long> questionIds = new ArrayList<>();
+        for (Question question : room.getQuestions()) {
+            questionIds.add(question.getId());
+        }
+
+        ArenaRoomState state = new ArenaRoomState();
+        state.setRoomId(room.getRoomId());
+        state.setRevision(room.getStoreRevision());
+        state.setMembershipVersion(room.getVersion());
+        state.setPlayers(write(room.getPlayers()));
+        state.setAnswers(write(answers));
+        state.setRound(room.getRound());
+        state.setScores(write(room.getScores()));
+        state.setQuestionIds(write(questionIds));
+        state.setQuestionIndex(room.getQuestionIndex());
+        state.setGameInProgress(room.isGameInProgress());
+        state.setRoundOpen(room.isRoundOpen());
+        state.setRoundStartedAt(room.getRoundStartedAt());
+        state.setRoundDeadline(room.getRoundDeadline());
+        state.setTimerToken(room.getTimerToken());
+        return state;
+    }
+
+    private ArenaRoom toRoom(ArenaRoomState state) {
+        List<Long> questionIds = read(state.getQuestionIds(), LONG_LIST, List.of());
+        List<Question> questions = new ArrayList<>();
+        for (Long id : questionIds) {
+            questionBank.get(id).ifPresent(questions::add);
+        }
+        ArenaRoom room = ArenaRoom.restore(state,
+                read(state.getPlayers(), STRING_LIST, List.of()),
+                read(state.getAnswers(), STRING_MAP, Map.of()),
+                read(state.getScores(), SCORE_MAP, Map.of()),
+                questions);
+        // A question removed from the bank mid-game leaves nothing sensible to resume
+        if (room.isGameInProgress() && questions.size() != questionIds.size()) {
+            room.endGame();
+        }
+        return room;
+    }
+
+    private String write(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize arena room state", e);
+        }
+    }
+
+    private <T> T read(String json, TypeReference<T> type, T fallback) {
+        if (json == null || json.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return mapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read arena room state", e);
+        }
+    }
+}
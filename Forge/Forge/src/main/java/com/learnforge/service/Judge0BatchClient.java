@@ -0,0 +1,263 @@
+package com.learnforge.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Talks to Judge0 in batches.
+ *
+ * Submissions arriving within a short window go out together through
+ * POST /submissions/batch. Every pending token is then polled by one central
+ * ticker, which groups the tokens that are due into
+ * GET /submissions/batch?tokens=... calls and completes each waiting future
+ * once its submission reaches a final status. Per-token backoff still
+ * applies; the ticker only decides which tokens share a request.
+ */
+@Service
+@ConditionalOnProperty(name = "execution.backend", havingValue = "judge0", matchIfMissing = true)
+public class Judge0BatchClient {
+    private static final Logger log = LoggerFactory.getLogger(Judge0BatchClient.class);
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> JSON_LIST = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_MAP = new ParameterizedTypeReference<>() {};
+    private static final double POLL_BACKOFF = 1.5;
+
+    @Value("${judge0.api.url}")
+    private String judge0ApiUrl;
+
+    @Value("${judge0.api.key}")
+    private String apiKey;
+
+    @Value("${judge0.api.host}")
+    private String apiHost;
+
+    // Judge0 accepts at most 20 submissions or tokens per batch call by default
+    @Value("${judge0.batch.size:20}")
+    private int batchSize;
+
+    @Value("${judge0.batch.window-ms:20}")
+    private long submitWindowMillis;
+
+    @Value("${judge0.poll.tick-ms:100}")
+    private long tickMillis;
+
+    @Value("${judge0.poll.initial-ms:250}")
+    private long initialPollMillis;
+
+    @Value("${judge0.poll.max-ms:2000}")
+    private long maxPollMillis;
+
+    @Value("${judge0.poll.timeout-ms:16000}")
+    private long pollTimeoutMillis;
+
+    private WebClient webClient;
+    private Disposable ticker;
+
+    private final ConcurrentLinkedQueue<QueuedSubmission> submitQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Map<String, PendingToken> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder submissions = new LongAdder();
+    private final LongAdder submitCalls = new LongAdder();
+    private final LongAdder pollCalls = new LongAdder();
+
+    @PostConstruct
+    private void init() {
+        this.webClient = WebClient.builder()
+                .baseUrl(judge0ApiUrl)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader("X-RapidAPI-Key", apiKey)
+                .defaultHeader("X-RapidAPI-Host", apiHost)
+                .defaultHeader(HttpHeaders.USER_AGENT, "ForgeApp/1.0")
+                .build();
+        this.ticker = Flux.interval(Duration.ofMillis(tickMillis))
+                .onBackpressureDrop()
+                .subscribe(tick -> pollDue(System.currentTimeMillis()));
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+    }
+
+    /**
+     * Submits one Judge0 submission payload and completes with the finished submission.
+     */
+    public CompletableFuture<Map<String, Object>> run(Map<String, Object> payload) {
+        QueuedSubmission submission = new QueuedSubmission(payload, System.currentTimeMillis() + pollTimeoutMillis);
+        submitQueue.offer(submission);
+        submissions.increment();
+        if (queued.incrementAndGet() >= batchSize) {
+            flushSubmissions();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            Mono.delay(Duration.ofMillis(submitWindowMillis)).subscribe(t -> {
+                flushScheduled.set(false);
+                flushSubmissions();
+            });
+        }
+        return submission.result;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("submissions", submissions.sum());
+        stats.put("submitCalls", submitCalls.sum());
+        stats.put("pollCalls", pollCalls.sum());
+        stats.put("pending", pending.size());
+        return stats;
+    }
+
+    private void flushSubmissions() {
+        while (true) {
+            List<QueuedSubmission> batch = new ArrayList<>(batchSize);
+            for (QueuedSubmission s; batch.size() < batchSize && (s = submitQueue.poll()) != null; ) {
+                batch.add(s);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            queued.addAndGet(-batch.size());
+            submitBatch(batch);
+        }
+    }
+
+    private void submitBatch(List<QueuedSubmission> batch) {
+        List<Map<String, Object>> payloads = new ArrayList<>(batch.size());
+        for (QueuedSubmission s : batch) {
+            payloads.add(s.payload);
+        }
+        submitCalls.increment();
+        webClient.post()
+                .uri("/submissions/batch?base64_encoded=false")
+                .bodyValue(Map.of("submissions", payloads))
+                .retrieve()
+                .bodyToMono(JSON_LIST)
+                .subscribe(tokens -> {
+                    // Results come back in submission order; an entry without a token is a rejected submission
+                    for (int i = 0; i < batch.size(); i++) {
+                        QueuedSubmission s = batch.get(i);
+                        Object token = i < tokens.size() ? tokens.get(i).get("token") : null;
+                        if (token instanceof String t) {
+                            pending.put(t, new PendingToken(t, s.result, s.deadline, initialPollMillis));
+                        } else {
+                            s.result.completeExceptionally(new RuntimeException("Failed to get submission token"));
+                        }
+                    }
+                }, e -> {
+                    log.warn("Judge0 batch submit of {} failed: {}", batch.size(), e.getMessage());
+                    batch.forEach(s -> s.result.completeExceptionally(e));
+                });
+    }
+
+    void pollDue(long now) {
+        List<PendingToken> due = new ArrayList<>();
+        for (PendingToken p : pending.values()) {
+            if (now > p.deadline) {
+                if (pending.remove(p.token, p)) {
+                    p.result.completeExceptionally(new RuntimeException("Submission timed out"));
+                }
+            } else if (now >= p.nextPollAt && p.inFlight.compareAndSet(false, true)) {
+                due.add(p);
+            }
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            pollBatch(due.subList(from, Math.min(due.size(), from + batchSize)));
+        }
+    }
+
+    private void pollBatch(List<PendingToken> batch) {
+        StringBuilder tokens = new StringBuilder();
+        for (PendingToken p : batch) {
+            if (tokens.length() > 0) {
+                tokens.append(',');
+            }
+            tokens.append(p.token);
+        }
+        pollCalls.increment();
+        webClient.get()
+                .uri("/submissions/batch?tokens={tokens}&base64_encoded=false", tokens.toString())
+                .retrieve()
+                .bodyToMono(JSON_MAP)
+                .subscribe(body -> {
+                    Object list = body.get("submissions");
+                    List<?> results = list instanceof List<?> l ? l : List.of();
+                    for (int i = 0; i < batch.size(); i++) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> result = i < results.size() && results.get(i) instanceof Map<?, ?> m
+                                ? (Map<String, Object>) m : null;
+                        settle(batch.get(i), result);
+                    }
+                }, e -> {
+                    log.warn("Judge0 batch poll of {} tokens failed: {}", batch.size(), e.getMessage());
+                    batch.forEach(p -> settle(p, null));
+                });
+    }
+
+    private void settle(PendingToken p, Map<String, Object> result) {
+        if (Judge0Service.isFinished(result)) {
+            if (pending.remove(p.token, p)) {
+                p.result.complete(result);
+            }
+            return;
+        }
+        p.delay = Math.min((long) (p.delay * POLL_BACKOFF), maxPollMillis);
+        p.nextPollAt = System.currentTimeMillis() + p.delay;
+        p.inFlight.set(false);
+    }
+
+    private static final class QueuedSubmission {
+        final Map<String, Object> payload;
+        final long deadline;
+        final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+
+        QueuedSubmission(Map<String, Object> payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class PendingToken {
+        final String token;
+        final CompletableFuture<Map<String, Object>> result;
+        final long deadline;
+        // Only the ticker or the poll that owns inFlight touches these
+        volatile long delay;
+        volatile long nextPollAt;
+        final AtomicBoolean inFlight = new AtomicBoolean();
+
+        PendingToken(String token, CompletableFuture<Map<String, Object>> result, long deadline, long delay) {
+            this.token = token;
+            this.result = result;
+            this.deadline = deadline;
+            this.delay = delay;
+            this.nextPollAt = System.currentTimeMillis() + delay;
+        }
+    }
+}
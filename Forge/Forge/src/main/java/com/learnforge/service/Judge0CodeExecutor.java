@@ -0,0 +1,44 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.ExecuteRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs code on the hosted Judge0 through the {@link Judge0BatchClient}.
+ */
+@Service
+@ConditionalOnProperty(name = "execution.backend", havingValue = "judge0", matchIfMissing = true)
+public class Judge0CodeExecutor implements CodeExecutor {
+
+    private final Judge0BatchClient batchClient;
+
+    public Judge0CodeExecutor(Judge0BatchClient batchClient) {
+        this.batchClient = batchClient;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> execute(ExecuteRequest request) {
+        return batchClient.run(buildPayload(request));
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return batchClient.stats();
+    }
+
+    private Map<String, Object> buildPayload(ExecuteRequest request) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("source_code", request.getCode());
+        payload.put("language_id", Judge0Service.languageId(request.getLanguage()));
+        payload.put("stdin", request.getInput() != null ? request.getInput() : "");
+        payload.put("cpu_time_limit", Judge0Service.CPU_TIME_LIMIT_SECONDS);
+        payload.put("wall_time_limit", Judge0Service.WALL_TIME_LIMIT_SECONDS);
+        payload.put("memory_limit", Judge0Service.MEMORY_LIMIT_KB);
+        return payload;
+    }
+}
@@ -1,111 +1,90 @@
 package com.learnforge.service;
 
 import com.learnforge.dto.ExecuteRequest;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs code without holding a thread while it waits.
+ *
+ * The work goes to whichever {@link CodeExecutor} {@code execution.backend}
+ * selects: the hosted Judge0 (default) or the local sandbox. Both complete
+ * with a Judge0-shaped submission. Repeated runs of the same code and input
+ * are answered from the {@link ExecutionResultCache}.
+ */
 @Service
 public class Judge0Service {
+    private static final Logger log = LoggerFactory.getLogger(Judge0Service.class);
 
-    @Value("${judge0.api.url}")
-    private String judge0ApiUrl;
-
-    @Value("${judge0.api.key}")
-    private String apiKey;
+    // Limits applied to every run, whichever backend executes it
+    static final int CPU_TIME_LIMIT_SECONDS = 3;
+    static final int WALL_TIME_LIMIT_SECONDS = 10;
+    static final int MEMORY_LIMIT_KB = 128000;
 
-    @Value("${judge0.api.host}")
-    private String apiHost;
+    private final CodeExecutor executor;
+    private final ExecutionResultCache resultCache;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    public Judge0Service(CodeExecutor executor, ExecutionResultCache resultCache) {
+        this.executor = executor;
+        this.resultCache = resultCache;
+    }
 
+    /**
+     * Blocking form of {@link #executeAsync}, for callers that are not request threads.
+     */
     public Map<String, Object> execute(ExecuteRequest request) {
-        try {
-            // Step 1: Submit code
-            String token = submitCode(request);
-            if (token == null) {
-                throw new RuntimeException("Failed to get submission token");
-            }
-
-            // Step 2: Poll until done
-            return pollResult(token);
-
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return error;
-        }
+        return executeAsync(request).join();
     }
 
-    private String submitCode(ExecuteRequest request) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("source_code", request.getCode());
-        payload.put("language_id", getLanguageId(request.getLanguage()));
-        payload.put("stdin", request.getInput() != null ? request.getInput() : "");
-        payload.put("cpu_time_limit", 3);
-        payload.put("wall_time_limit", 10);
-        payload.put("memory_limit", 128000);
-
-        HttpHeaders headers = createHeaders();
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
-
-        String url = judge0ApiUrl + "/submissions?base64_encoded=false&wait=false";
-
-        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-        Map<String, Object> body = response.getBody();
-        if (body != null && body.containsKey("token")) {
-            return (String) body.get("token");
-        }
-        return null;
+    /**
+     * Submits the code and completes with the finished submission. Never
+     * completes exceptionally: failures come back as a map with an "error" key.
+     */
+    public CompletableFuture<Map<String, Object>> executeAsync(ExecuteRequest request) {
+        return resultCache.getOrExecute(request, this::submit);
     }
 
-    private Map<String, Object> pollResult(String token) throws InterruptedException {
-        HttpHeaders headers = createHeaders();
-        String url = judge0ApiUrl + "/submissions/" + token + "?base64_encoded=false";
-
-        int maxAttempts = 20;
-        int delayMs = 800;
-
-        for (int i = 0; i < maxAttempts; i++) {
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity(headers), Map.class);
-            Map<String, Object> result = response.getBody();
-
-            if (result != null) {
-                Object statusObj = result.get("status");
-                if (statusObj instanceof Map<?, ?> statusMap) {
-                    Integer statusId = (Integer) statusMap.get("id");
-                    // 1 = In Queue, 2 = Processing
-                    if (statusId != null && statusId > 2) {
-                        return result; // Done
-                    }
-                }
-            }
-            TimeUnit.MILLISECONDS.sleep(delayMs);
+    private CompletableFuture<Map<String, Object>> submit(ExecuteRequest request) {
+        CompletableFuture<Map<String, Object>> run;
+        try {
+            run = executor.execute(request);
+        } catch (RuntimeException e) {
+            run = CompletableFuture.failedFuture(e);
         }
-
-        throw new RuntimeException("Submission timed out");
+        return run.handle((result, e) -> {
+            if (e == null) {
+                return result;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.warn("Code execution failed: {}", cause.getMessage());
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", cause.getMessage());
+            return error;
+        });
     }
 
-    private HttpHeaders createHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("X-RapidAPI-Key", apiKey);
-        headers.set("X-RapidAPI-Host", apiHost);
-        headers.set("User-Agent", "ForgeApp/1.0");
-        return headers;
+    public Map<String, Object> stats() {
+        return executor.stats();
     }
 
-    private HttpEntity<?> entity(HttpHeaders headers) {
-        return new HttpEntity<>(headers);
+    // 1 = In Queue, 2 = Processing; anything above is a final status
+    static boolean isFinished(Map<String, Object> result) {
+        if (result != null && result.get("status") instanceof Map<?, ?> statusMap
+                && statusMap.get("id") instanceof Number statusId) {
+            return statusId.intValue() > 2;
+        }
+        return false;
     }
 
-    private int getLanguageId(String lang) {
-        return switch (lang.toLowerCase()) {
+    // Judge0 language ids; the local backend dispatches on the same ids
+    static int languageId(String lang) {
+        return switch (lang == null ? "" : lang.trim().toLowerCase()) {
             case "cpp", "c++" -> 54;
             case "c" -> 50;
             case "java" -> 62;
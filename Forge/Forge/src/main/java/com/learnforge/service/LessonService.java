@@ -1,5 +1,6 @@
 package com.learnforge.service;
 
+import com.learnforge.dto.LessonWithResourcesDTO;
 import com.learnforge.entity.Course;
 import com.learnforge.entity.Lesson;
 import com.learnforge.entity.Resource;
@@ -7,10 +8,15 @@ import com.learnforge.repository.CourseRepository;
 import com.learnforge.repository.LessonRepository;
 import com.learnforge.repository.ResourceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class LessonService {
@@ -24,23 +30,50 @@ public class LessonService {
     @Autowired
     private ResourceRepository resourceRepository;
 
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * ✅ Fetch all lessons for a course, including their resources
+     * ✅ Fetch up to {@code count} lessons of a course after {@code afterId}, including their resources (two queries in total)
      */
-    public List<Lesson> getLessonsByCourseId(Long courseId) {
-        System.out.println("📚 Fetching lessons for course " + courseId);
-        List<Lesson> lessons = lessonRepository.findByCourseIdOrderByLessonIdAsc(courseId);
-        System.out.println("✅ Found " + lessons.size() + " lessons");
+    public List<Lesson> getLessonsByCourseId(Long courseId, long afterId, int count) {
+        List<Lesson> lessons = lessonRepository.findPageByCourseId(courseId, afterId, PageRequest.of(0, count));
+        attachResources(lessons);
+        return lessons;
+    }
 
-        // Resources will be automatically fetched if you use FetchType.LAZY and call lesson.getResources()
+    /**
+     * ✅ Same lessons as getLessonsByCourseId, each paired with its resources
+     */
+    public List<LessonWithResourcesDTO> getLessonsWithResources(Long courseId, long afterId, int count) {
+        List<Lesson> lessons = getLessonsByCourseId(courseId, afterId, count);
+        List<LessonWithResourcesDTO> result = new ArrayList<>(lessons.size());
         for (Lesson lesson : lessons) {
-            List<Resource> resources = resourceRepository.findByLesson_LessonId(lesson.getLessonId());
-            lesson.setResources(resources);
-            System.out.println("  → Lesson " + lesson.getLessonId() + ": " + lesson.getLessonName() +
-                    " | Resources: " + resources.size());
+            result.add(new LessonWithResourcesDTO(lesson, lesson.getResources()));
         }
+        return result;
+    }
 
-        return lessons;
+    /**
+     * Loads the resources of all given lessons with one IN query and sets them on each lesson.
+     */
+    public void attachResources(List<Lesson> lessons) {
+        if (lessons.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Resource>> byLesson = new HashMap<>(lessons.size() * 2);
+        for (Lesson lesson : lessons) {
+            byLesson.put(lesson.getLessonId(), new ArrayList<>());
+        }
+        for (Resource resource : resourceRepository.findByLessonIds(byLesson.keySet())) {
+            byLesson.get(resource.getLesson().getLessonId()).add(resource);
+        }
+        for (Lesson lesson : lessons) {
+            lesson.setResources(byLesson.get(lesson.getLessonId()));
+        }
     }
 
     /**
@@ -89,6 +122,8 @@ public class LessonService {
         lesson.setCourse(course);
         Lesson saved = lessonRepository.save(lesson);
         saved.setResources(List.of()); // empty list for new lessons
+        searchService.indexLesson(saved);
+        eventPublisher.publishEvent(new CatalogChangedEvent("lesson"));
 
         System.out.println("✅ Lesson created with ID: " + saved.getLessonId());
         return saved;
@@ -110,6 +145,8 @@ public class LessonService {
         Lesson updated = lessonRepository.save(lesson);
         List<Resource> resources = resourceRepository.findByLesson_LessonId(lessonId);
         updated.setResources(resources);
+        searchService.indexLesson(updated);
+        eventPublisher.publishEvent(new CatalogChangedEvent("lesson"));
 
         System.out.println("✅ Lesson updated");
         return updated;
@@ -122,10 +159,16 @@ public class LessonService {
     public void deleteLesson(Long lessonId) {
         System.out.println("🗑️ Deleting lesson " + lessonId);
 
+        List<Long> resourceIds = resourceRepository.findByLesson_LessonId(lessonId).stream()
+                .map(Resource::getId)
+                .toList();
+
         // Delete resources first to maintain referential integrity
         resourceRepository.deleteByLesson_LessonId(lessonId);
 
         lessonRepository.deleteById(lessonId);
+        searchService.removeLesson(lessonId, resourceIds);
+        eventPublisher.publishEvent(new CatalogChangedEvent("lesson"));
         System.out.println("✅ Lesson and related resources deleted");
     }
 
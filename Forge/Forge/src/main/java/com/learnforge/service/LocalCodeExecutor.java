@@ -0,0 +1,377 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.ExecuteRequest;
+import com.learnforge.worker.CappedOutputStream;
+import com.learnforge.worker.JavaWorker;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Runs code in child processes on this host instead of calling out to Judge0.
+ *
+ * Each run gets its own temp directory. Compilation and execution go through
+ * {@code bash -c "ulimit ...; exec ..."} inside a {@link ProcessSandbox}, so
+ * the CPU, address-space, file-size and process caps are set on the child
+ * before the toolchain starts and the child runs as a throwaway uid that
+ * cannot see the application; the wall clock limit is enforced here by
+ * killing the sandbox. The bean will not start without that isolation unless
+ * {@code execution.local.allow-unsandboxed} is set. Stdout and stderr are drained from pipes while the
+ * process runs, keeping the first {@code execution.local.output-limit-bytes}
+ * of each and discarding the rest. The result uses Judge0's submission shape
+ * and status ids so callers and the result cache do not care which backend ran.
+ *
+ * Java goes to a {@link JavaWorkerPool} of warm worker JVMs when
+ * {@code execution.local.java-pool.size} is above zero, and falls back to
+ * javac and java processes if the pool is off or could not start.
+ */
+@Service
+@ConditionalOnProperty(name = "execution.backend", havingValue = "local")
+public class LocalCodeExecutor implements CodeExecutor {
+    private static final Logger log = LoggerFactory.getLogger(LocalCodeExecutor.class);
+
+    // Judge0 status ids
+    private static final int ACCEPTED = 3;
+    private static final int TIME_LIMIT_EXCEEDED = 5;
+    private static final int COMPILATION_ERROR = 6;
+    private static final int SIGSEGV = 7;
+    private static final int SIGXFSZ = 8;
+    private static final int SIGFPE = 9;
+    private static final int SIGABRT = 10;
+    private static final int NZEC = 11;
+    private static final int INTERNAL_ERROR = 13;
+
+    private static final int COMPILE_TIMEOUT_SECONDS = 30;
+    private static final long DRAIN_MILLIS = 1000;
+    private static final int JAVA_LANGUAGE_ID = 62;
+
+    private record Toolchain(String sourceFile, String compile, String run, boolean capAddressSpace) {}
+
+    private record Outcome(int exitCode, boolean timedOut, long elapsedMillis, String stdout, String stderr) {}
+
+    private final int outputLimitBytes;
+    private final String javaHome;
+    private final ProcessSandbox sandbox;
+    private final ExecutorService runners;
+    private final ExecutorService pumps;
+    private final JavaWorkerPool javaPool;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder compileErrors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public LocalCodeExecutor(@Value("${execution.local.max-concurrent:0}") int maxConcurrent,
+                             @Value("${execution.local.output-limit-bytes:65536}") int outputLimitBytes,
+                             @Value("${execution.local.java-pool.size:2}") int javaPoolSize,
+                             @Value("${execution.local.java-pool.heap-mb:192}") int javaPoolHeapMb,
+                             @Value("${execution.local.java-pool.max-runs:500}") int javaPoolMaxRuns,
+                             @Value("${execution.local.java-home:${java.home}}") String javaHome,
+                             @Value("${execution.local.sandbox.uid-base:61000}") int sandboxUidBase,
+                             @Value("${execution.local.sandbox.max-processes:64}") int sandboxMaxProcesses,
+                             @Value("${execution.local.sandbox.hidden-paths:${user.dir}}") String[] sandboxHiddenPaths,
+                             @Value("${execution.local.sandbox.cgroup:auto}") String sandboxCgroup,
+                             @Value("${execution.local.allow-unsandboxed:false}") boolean allowUnsandboxed) {
+        int threads = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        this.outputLimitBytes = outputLimitBytes;
+        this.javaHome = javaHome;
+        this.sandbox = new ProcessSandbox(threads + Math.max(javaPoolSize, 0), sandboxUidBase, sandboxMaxProcesses,
+                Stream.of(sandboxHiddenPaths).map(Path::of).toList(),
+                List.of(Path.of(System.getProperty("java.io.tmpdir")), Path.of(javaHome)),
+                sandboxCgroup, allowUnsandboxed);
+        this.runners = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "local-exec-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.pumps = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "local-exec-io");
+            t.setDaemon(true);
+            return t;
+        });
+        this.javaPool = javaPoolSize > 0 ? startJavaPool(javaPoolSize, javaPoolHeapMb, javaPoolMaxRuns) : null;
+    }
+
+    private JavaWorkerPool startJavaPool(int size, int heapMb, int maxRuns) {
+        try {
+            return new JavaWorkerPool(size, heapMb, maxRuns,
+                    TimeUnit.SECONDS.toMillis(Judge0Service.CPU_TIME_LIMIT_SECONDS),
+                    TimeUnit.SECONDS.toMillis(Judge0Service.WALL_TIME_LIMIT_SECONDS),
+                    outputLimitBytes, javaHome, sandbox);
+        } catch (IOException e) {
+            log.warn("Java worker pool unavailable, using javac and java processes: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        runners.shutdownNow();
+        pumps.shutdownNow();
+        if (javaPool != null) {
+            javaPool.shutdown();
+        }
+        sandbox.close();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> execute(ExecuteRequest request) {
+        int languageId = Judge0Service.languageId(request.getLanguage());
+        Toolchain toolchain = toolchainFor(languageId);
+        String stdin = request.getInput() != null ? request.getInput() : "";
+        if (languageId == JAVA_LANGUAGE_ID && javaPool != null && javaPool.isEnabled()) {
+            return CompletableFuture.supplyAsync(() -> runPooled(toolchain, request.getCode(), stdin), runners);
+        }
+        return CompletableFuture.supplyAsync(() -> run(toolchain, request.getCode(), stdin), runners);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("runs", runs.sum());
+        stats.put("compileErrors", compileErrors.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("active", active.get());
+        if (javaPool != null) {
+            stats.put("javaPool", javaPool.stats());
+        }
+        return stats;
+    }
+
+    private Map<String, Object> run(Toolchain toolchain, String code, String stdin) {
+        runs.increment();
+        active.incrementAndGet();
+        Path dir = null;
+        int slot = -1;
+        try {
+            slot = sandbox.acquire();
+            dir = Files.createTempDirectory("forge-run-");
+            Files.writeString(dir.resolve(toolchain.sourceFile()), code, StandardCharsets.UTF_8);
+            Files.writeString(dir.resolve("stdin.txt"), stdin, StandardCharsets.UTF_8);
+            sandbox.grant(dir, slot);
+
+            if (toolchain.compile() != null) {
+                Outcome compiled = exec(dir, slot, limits(COMPILE_TIMEOUT_SECONDS, false) + toolchain.compile(),
+                        COMPILE_TIMEOUT_SECONDS, false);
+                if (compiled.timedOut() || compiled.exitCode() != 0) {
+                    compileErrors.increment();
+                    Map<String, Object> result = result(COMPILATION_ERROR, "Compilation Error", null);
+                    result.put("compile_output", compiled.timedOut()
+                            ? "Compilation timed out" : compiled.stdout() + compiled.stderr());
+                    return result;
+                }
+            }
+
+            Outcome outcome = exec(dir, slot,
+                    limits(Judge0Service.CPU_TIME_LIMIT_SECONDS, toolchain.capAddressSpace()) + toolchain.run(),
+                    Judge0Service.WALL_TIME_LIMIT_SECONDS, true);
+            Map<String, Object> result = classify(outcome);
+            result.put("stdout", outcome.stdout());
+            result.put("stderr", outcome.stderr());
+            return result;
+        } catch (IOException e) {
+            log.warn("Local execution failed: {}", e.getMessage());
+            Map<String, Object> result = result(INTERNAL_ERROR, "Internal Error", null);
+            result.put("message", e.getMessage());
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return result(INTERNAL_ERROR, "Internal Error", null);
+        } finally {
+            active.decrementAndGet();
+            deleteQuietly(dir);
+            sandbox.release(slot);
+        }
+    }
+
+    private Map<String, Object> runPooled(Toolchain fallback, String code, String stdin) {
+        JavaWorkerPool.Run run;
+        runs.increment();
+        active.incrementAndGet();
+        try {
+            run = javaPool.run(code, stdin);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return result(INTERNAL_ERROR, "Internal Error", null);
+        } finally {
+            active.decrementAndGet();
+        }
+        if (run == null) {
+            runs.decrement();
+            return run(fallback, code, stdin);
+        }
+
+        Map<String, Object> result = switch (run.statusId()) {
+            case JavaWorker.ACCEPTED -> result(ACCEPTED, "Accepted", run.cpuMillis());
+            case JavaWorker.COMPILATION_ERROR -> {
+                compileErrors.increment();
+                yield result(COMPILATION_ERROR, "Compilation Error", null);
+            }
+            case JavaWorker.TIME_LIMIT_EXCEEDED -> {
+                timeouts.increment();
+                yield result(TIME_LIMIT_EXCEEDED, "Time Limit Exceeded", run.cpuMillis());
+            }
+            case JavaWorker.RUNTIME_ERROR -> result(NZEC, "Runtime Error (NZEC)", run.cpuMillis());
+            default -> result(INTERNAL_ERROR, "Internal Error", null);
+        };
+        if (run.statusId() == JavaWorker.COMPILATION_ERROR) {
+            result.put("compile_output", run.compileOutput());
+            return result;
+        }
+        result.put("stdout", run.stdout());
+        result.put("stderr", run.stderr());
+        result.put("exit_code", run.statusId() == JavaWorker.TIME_LIMIT_EXCEEDED ? null : run.exitCode());
+        return result;
+    }
+
+    private Outcome exec(Path dir, int slot, String script, int wallSeconds, boolean withStdin)
+            throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(sandbox.command(slot, script))
+                .directory(dir.toFile());
+        if (withStdin) {
+            builder.redirectInput(dir.resolve("stdin.txt").toFile());
+        }
+        Map<String, String> env = builder.environment();
+        env.keySet().retainAll(List.of("PATH", "LANG"));
+        env.put("HOME", dir.toString());
+        env.put("TMPDIR", dir.toString());
+        env.put("JAVA_HOME", javaHome);
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        CappedOutputStream stdout = new CappedOutputStream(outputLimitBytes);
+        CappedOutputStream stderr = new CappedOutputStream(outputLimitBytes);
+        CompletableFuture<Void> drained = CompletableFuture.allOf(
+                drain(process.getInputStream(), stdout), drain(process.getErrorStream(), stderr));
+        boolean finished = process.waitFor(wallSeconds, TimeUnit.SECONDS);
+        if (!finished) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+            process.waitFor();
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        try {
+            // The sandbox dies with its pid 1, so the pipes close right away; without
+            // one a backgrounded child can hold them open, and its output is dropped
+            drained.get(DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Output of a local run still open after exit: {}", e.toString());
+        }
+        return new Outcome(finished ? process.exitValue() : -1, !finished, elapsed,
+                stdout.toString(StandardCharsets.UTF_8), stderr.toString(StandardCharsets.UTF_8));
+    }
+
+    private CompletableFuture<Void> drain(InputStream stream, CappedOutputStream sink) {
+        return CompletableFuture.runAsync(() -> {
+            try (stream) {
+                stream.transferTo(sink);
+            } catch (IOException e) {
+                log.debug("Output pipe closed early: {}", e.getMessage());
+            }
+        }, pumps);
+    }
+
+    private Map<String, Object> classify(Outcome outcome) {
+        Map<String, Object> result;
+        if (outcome.timedOut()) {
+            timeouts.increment();
+            result = result(TIME_LIMIT_EXCEEDED, "Time Limit Exceeded", outcome.elapsedMillis());
+        } else {
+            // bash reports a child killed by signal N as exit status 128 + N
+            result = switch (outcome.exitCode()) {
+                case 0 -> result(ACCEPTED, "Accepted", outcome.elapsedMillis());
+                case 128 + 9, 128 + 24 -> {
+                    // SIGKILL / SIGXCPU: the CPU limit was hit
+                    timeouts.increment();
+                    yield result(TIME_LIMIT_EXCEEDED, "Time Limit Exceeded", outcome.elapsedMillis());
+                }
+                case 128 + 11 -> result(SIGSEGV, "Runtime Error (SIGSEGV)", outcome.elapsedMillis());
+                case 128 + 25 -> result(SIGXFSZ, "Runtime Error (SIGXFSZ)", outcome.elapsedMillis());
+                case 128 + 8 -> result(SIGFPE, "Runtime Error (SIGFPE)", outcome.elapsedMillis());
+                case 128 + 6 -> result(SIGABRT, "Runtime Error (SIGABRT)", outcome.elapsedMillis());
+                default -> result(NZEC, "Runtime Error (NZEC)", outcome.elapsedMillis());
+            };
+        }
+        result.put("exit_code", outcome.timedOut() ? null : outcome.exitCode());
+        return result;
+    }
+
+    private static Map<String, Object> result(int statusId, String description, Long elapsedMillis) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", statusId);
+        status.put("description", description);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("stdout", null);
+        result.put("stderr", null);
+        result.put("compile_output", null);
+        result.put("time", elapsedMillis == null ? null : String.format(Locale.ROOT, "%.3f", elapsedMillis / 1000.0));
+        result.put("memory", null);
+        result.put("status", status);
+        return result;
+    }
+
+    // -t CPU seconds, -v address space in KB, -f file size in bash's 1024-byte blocks (64 MB of binaries
+    // and files the program writes); stdout and stderr are pipes, capped by the drain instead
+    private String limits(int cpuSeconds, boolean capAddressSpace) {
+        StringBuilder caps = new StringBuilder("-t ").append(cpuSeconds).append(" -f 65536");
+        if (capAddressSpace) {
+            caps.append(" -v ").append(Judge0Service.MEMORY_LIMIT_KB);
+        }
+        return sandbox.limits(caps.toString());
+    }
+
+    // The JVM and V8 reserve far more address space than they use, so they get heap caps instead of ulimit -v
+    private static Toolchain toolchainFor(int languageId) {
+        int heapMb = Judge0Service.MEMORY_LIMIT_KB / 1000;
+        return switch (languageId) {
+            case 54 -> new Toolchain("main.cpp", "g++ -O2 -std=c++17 -o main main.cpp", "./main", true);
+            case 50 -> new Toolchain("main.c", "gcc -O2 -o main main.c -lm", "./main", true);
+            case 62 -> new Toolchain("Main.java", "\"$JAVA_HOME/bin/javac\" -J-Xmx256m Main.java",
+                    "\"$JAVA_HOME/bin/java\" -Xmx" + heapMb + "m -Xss8m -XX:+UseSerialGC -cp . Main", false);
+            case 71 -> new Toolchain("main.py", null, "python3 main.py", true);
+            default -> new Toolchain("main.js", null, "node --max-old-space-size=" + heapMb + " main.js", false);
+        };
+    }
+
+    private static void deleteQuietly(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.debug("Could not clean up {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.learnforge.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+
+/**
+ * Wraps the shell scripts that compile and run submissions so they cannot
+ * reach the application.
+ *
+ * When the app runs as root and util-linux's {@code unshare} and {@code setpriv}
+ * are on the PATH, every script gets fresh pid, network, IPC, UTS and mount
+ * namespaces: it sees and can signal only its own processes, has no network,
+ * and the hidden paths (the app's working directory by default) are covered
+ * by an empty tmpfs. A root shell stays behind as pid 1 of the namespace and
+ * runs the script under a uid of its own with every capability dropped, so
+ * {@code ulimit -u} counts that run's processes alone and killing the
+ * returned process takes the whole namespace down with it.
+ *
+ * Without isolation the sandbox refuses to start unless explicitly allowed,
+ * since scripts would then run as the application user with its network and
+ * files. Either way every slot gets its own pids cgroup where one can be
+ * created, capping the run's processes and letting {@link #release} kill
+ * whatever it left behind. Unisolated runs with no cgroup get a {@code ulimit -u}
+ * just above the application user's current task count instead.
+ */
+public class ProcessSandbox {
+    private static final Logger log = LoggerFactory.getLogger(ProcessSandbox.class);
+
+    // $1 is the script and the remaining arguments are the paths to hide. The namespace's
+    // own shell keeps stderr to itself so its "Killed" job reports never reach the output.
+    private static final String INIT = "s=$1; shift; "
+            + "for p in \"$@\"; do mount -t tmpfs -o size=4k,mode=0 forge \"$p\" || exit 125; done; "
+            + "exec 3>&2 2>/dev/null; "
+            + "setpriv --reuid=%1$d --regid=%1$d --clear-groups --inh-caps=-all --bounding-set=-all "
+            + "--no-new-privs -- bash -c \"$s\" 2>&3 3>&-; "
+            + "exit $?";
+    // $1 is the slot's cgroup; joining first puts every process of the run under its pids.max
+    private static final String JOIN = "echo $$ > \"$1/cgroup.procs\" || exit 125; shift; exec \"$@\"";
+    private static final String CGROUP_PREFIX = "forge-";
+    // unshare and the namespace's root shell sit in the cgroup next to the script
+    private static final int ISOLATION_PROCESSES = 2;
+    private static final int KILL_ROUNDS = 20;
+
+    private final boolean isolated;
+    private final int uidBase;
+    private final int maxProcesses;
+    private final List<String> hiddenPaths;
+    private final BlockingQueue<Integer> slots;
+    private final Path cgroupDir;
+    private final List<Path> slotCgroups;
+
+    /**
+     * @param slots            how many scripts may run at once; when isolated each holds
+     *                         the uid {@code uidBase} plus its slot number while it runs
+     * @param maxProcesses     the per-script process cap, threads included
+     * @param hiddenPaths      directories the scripts must not see
+     * @param keepVisible      directories the scripts need, such as the temp dir and JDK;
+     *                         hidden paths that contain one of them are left alone
+     * @param cgroup           a pids cgroup directory the app may create children in,
+     *                         "auto" for its own, or "none"
+     * @param allowUnsandboxed run scripts as the application user when isolation is unavailable
+     */
+    public ProcessSandbox(int slots, int uidBase, int maxProcesses, List<Path> hiddenPaths, List<Path> keepVisible,
+                          String cgroup, boolean allowUnsandboxed) {
+        this(slots, uidBase, maxProcesses, hiddenPaths, keepVisible, cgroup, allowUnsandboxed,
+                isRoot() && onPath("unshare") && onPath("setpriv"));
+    }
+
+    ProcessSandbox(int slots, int uidBase, int maxProcesses, List<Path> hiddenPaths, List<Path> keepVisible,
+                   String cgroup, boolean allowUnsandboxed, boolean isolationAvailable) {
+        if (!isolationAvailable && !allowUnsandboxed) {
+            throw new IllegalStateException("Refusing to run submissions without isolation: run as root with "
+                    + "util-linux unshare and setpriv installed, or set execution.local.allow-unsandboxed=true");
+        }
+        this.isolated = isolationAvailable;
+        this.uidBase = uidBase;
+        this.maxProcesses = maxProcesses;
+        this.hiddenPaths = isolated ? hide(hiddenPaths, keepVisible) : List.of();
+        this.slots = new ArrayBlockingQueue<>(slots);
+        for (int i = 0; i < slots; i++) {
+            this.slots.add(i);
+        }
+        this.cgroupDir = createCgroups(cgroup, slots, maxProcesses + (isolated ? ISOLATION_PROCESSES : 0));
+        this.slotCgroups = new ArrayList<>();
+        for (int i = 0; cgroupDir != null && i < slots; i++) {
+            slotCgroups.add(cgroupDir.resolve("slot-" + i));
+        }
+
+        if (isolated) {
+            log.info("Sandboxing submissions as uids {}-{}, hiding {}", uidBase, uidBase + slots - 1, this.hiddenPaths);
+            keepVisible.forEach(ProcessSandbox::warnIfUnreachable);
+        } else {
+            log.warn("execution.local.allow-unsandboxed is set: submissions run as the application user "
+                    + "with its network and files");
+        }
+        if (cgroupDir != null) {
+            log.info("Capping each submission at {} processes in {}", maxProcesses, cgroupDir);
+        } else if (!isolated) {
+            log.warn("No pids cgroup for submissions; their process cap is a ulimit relative to this user's tasks");
+        }
+    }
+
+    public boolean isIsolated() {
+        return isolated;
+    }
+
+    /** The slot's pids cgroup, or null when processes are capped by ulimit alone. */
+    Path cgroup(int slot) {
+        return cgroupDir != null ? slotCgroups.get(slot) : null;
+    }
+
+    /** Takes a slot for one script, waiting while all are busy; pair with {@link #release}. */
+    public int acquire() throws InterruptedException {
+        return slots.take();
+    }
+
+    /** Kills anything the slot's script left running, then frees the slot. */
+    public void release(int slot) {
+        if (slot < 0) {
+            return;
+        }
+        if (cgroupDir != null) {
+            killAll(slotCgroups.get(slot));
+        }
+        slots.add(slot);
+    }
+
+    /** A {@code ulimit <caps> && exec } prefix that also caps the script's processes. */
+    public String limits(String caps) {
+        StringBuilder script = new StringBuilder("ulimit ").append(caps);
+        if (isolated) {
+            script.append(" -u ").append(maxProcesses);
+        } else if (cgroupDir == null) {
+            // RLIMIT_NPROC counts every task of the user, the application's own threads included
+            script.append(" -u ").append(relativeProcessLimit());
+        }
+        return script.append(" && exec ").toString();
+    }
+
+    /** The command line that runs {@code script} with bash in {@code slot}. */
+    public List<String> command(int slot, String script) {
+        List<String> command = new ArrayList<>();
+        if (cgroupDir != null) {
+            command.addAll(List.of("bash", "-c", JOIN, "join", slotCgroups.get(slot).toString()));
+        }
+        if (!isolated) {
+            command.addAll(List.of("bash", "-c", script));
+            return command;
+        }
+        command.addAll(List.of(
+                "unshare", "--pid", "--net", "--ipc", "--uts", "--mount", "--mount-proc", "--fork", "--kill-child",
+                "--", "bash", "-c", String.format(INIT, uid(slot)), "sandbox", script));
+        command.addAll(hiddenPaths);
+        return command;
+    }
+
+    /** Removes this instance's cgroups; call once no script is running. */
+    public void close() {
+        if (cgroupDir == null) {
+            return;
+        }
+        slotCgroups.forEach(ProcessSandbox::killAll);
+        removeCgroup(cgroupDir);
+    }
+
+    /** Hands a directory and everything in it to the slot's uid so the script can write there. */
+    public void grant(Path dir, int slot) throws IOException {
+        if (!isolated) {
+            return;
+        }
+        int uid = uid(slot);
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.forEach(p -> {
+                try {
+                    Files.setAttribute(p, "unix:uid", uid);
+                    Files.setAttribute(p, "unix:gid", uid);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int uid(int slot) {
+        return uidBase + slot;
+    }
+
+    private int relativeProcessLimit() {
+        long limit = (long) userTasks() + maxProcesses;
+        long hard = hardProcessLimit();
+        return (int) Math.min(Math.min(limit, hard), Integer.MAX_VALUE);
+    }
+
+    // One directory per app instance, so two instances sharing a cgroup never kill each other's runs
+    private static Path createCgroups(String setting, int slots, int pidsMax) {
+        if (setting == null || setting.isBlank() || "none".equalsIgnoreCase(setting)) {
+            return null;
+        }
+        Path base = "auto".equalsIgnoreCase(setting) ? ownPidsCgroup().orElse(null) : Path.of(setting);
+        if (base == null) {
+            log.info("No pids cgroup found for this process");
+            return null;
+        }
+        Path dir = base.resolve(CGROUP_PREFIX + ProcessHandle.current().pid());
+        try {
+            removeStaleCgroups(base);
+            enablePids(base);
+            Files.createDirectories(dir);
+            enablePids(dir);
+            for (int i = 0; i < slots; i++) {
+                Path slot = Files.createDirectories(dir.resolve("slot-" + i));
+                Files.writeString(slot.resolve("pids.max"), String.valueOf(pidsMax));
+            }
+            return dir;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not set up pids cgroups under {}: {}", base, e.toString());
+            removeCgroup(dir);
+            return null;
+        }
+    }
+
+    // cgroup v2 hands pids.max to children only once the parent enables the controller; v1 needs nothing
+    private static void enablePids(Path cgroup) throws IOException {
+        Path control = cgroup.resolve("cgroup.subtree_control");
+        if (Files.exists(control) && !Files.readString(control).contains("pids")) {
+            Files.writeString(control, "+pids");
+        }
+    }
+
+    private static Optional<Path> ownPidsCgroup() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/cgroup"))) {
+                String[] parts = line.split(":", 3);
+                if (parts.length < 3) {
+                    continue;
+                }
+                String relative = parts[2].startsWith("/") ? parts[2].substring(1) : parts[2];
+                if (List.of(parts[1].split(",")).contains("pids") && Files.isDirectory(Path.of("/sys/fs/cgroup/pids"))) {
+                    return Optional.of(Path.of("/sys/fs/cgroup/pids").resolve(relative));
+                }
+                if (parts[0].equals("0") && Files.exists(Path.of("/sys/fs/cgroup/cgroup.controllers"))) {
+                    return Optional.of(Path.of("/sys/fs/cgroup").resolve(relative));
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Could not read /proc/self/cgroup: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    // Left behind by instances that died without closing
+    private static void removeStaleCgroups(Path base) throws IOException {
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(base, CGROUP_PREFIX + "*")) {
+            for (Path dir : dirs) {
+                String pid = dir.getFileName().toString().substring(CGROUP_PREFIX.length());
+                if (pid.chars().allMatch(Character::isDigit) && !pid.isEmpty()
+                        && ProcessHandle.of(Long.parseLong(pid)).isEmpty()) {
+                    removeCgroup(dir);
+                }
+            }
+        }
+    }
+
+    private static void removeCgroup(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        // cgroup directories hold only virtual files, so they are removed bottom-up with rmdir alone
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(dir, Files::isDirectory)) {
+            for (Path child : children) {
+                killAll(child);
+                removeCgroup(child);
+            }
+        } catch (IOException e) {
+            log.debug("Could not list {}: {}", dir, e.getMessage());
+        }
+        try {
+            Files.delete(dir);
+        } catch (IOException e) {
+            log.debug("Could not remove cgroup {}: {}", dir, e.getMessage());
+        }
+    }
+
+    // A fork can land between reading the list and the kill, so go round until it stays empty
+    private static void killAll(Path cgroup) {
+        try {
+            for (int round = 0; round < KILL_ROUNDS; round++) {
+                List<String> pids = Files.readAllLines(cgroup.resolve("cgroup.procs"));
+                if (pids.isEmpty()) {
+                    return;
+                }
+                for (String pid : pids) {
+                    ProcessHandle.of(Long.parseLong(pid.trim())).ifPresent(ProcessHandle::destroyForcibly);
+                }
+                Thread.sleep(10);
+            }
+            log.warn("Processes still running in {}", cgroup);
+        } catch (IOException | NumberFormatException e) {
+            log.debug("Could not clear {}: {}", cgroup, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int userTasks() {
+        String self = realUid(Path.of("/proc/self/status"));
+        int total = 0;
+        try (DirectoryStream<Path> procs = Files.newDirectoryStream(Path.of("/proc"), "[0-9]*")) {
+            for (Path proc : procs) {
+                try {
+                    List<String> status = Files.readAllLines(proc.resolve("status"));
+                    if (self != null && self.equals(field(status, "Uid:"))) {
+                        String threads = field(status, "Threads:");
+                        total += threads != null ? Integer.parseInt(threads) : 1;
+                    }
+                } catch (IOException | NumberFormatException e) {
+                    // Exited while we looked
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Could not count tasks: {}", e.getMessage());
+        }
+        return total;
+    }
+
+    private static long hardProcessLimit() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/limits"))) {
+                if (line.startsWith("Max processes")) {
+                    String[] columns = line.substring("Max processes".length()).trim().split("\\s+");
+                    return "unlimited".equals(columns[1]) ? Long.MAX_VALUE : Long.parseLong(columns[1]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not read the process limit: {}", e.getMessage());
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static String realUid(Path status) {
+        try {
+            return field(Files.readAllLines(status), "Uid:");
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // First value of a /proc status line, e.g. the real uid of "Uid:\t1000\t1000\t1000\t1000"
+    private static String field(List<String> status, String name) {
+        for (String line : status) {
+            if (line.startsWith(name)) {
+                String[] values = line.substring(name.length()).trim().split("\\s+");
+                return values[0];
+            }
+        }
+        return null;
+    }
+
+    private static List<String> hide(List<Path> paths, List<Path> keepVisible) {
+        List<String> hidden = new ArrayList<>();
+        for (Path path : paths) {
+            Path dir = path.toAbsolutePath().normalize();
+            if (dir.getParent() == null || !Files.isDirectory(dir)
+                    || keepVisible.stream().anyMatch(keep -> keep.toAbsolutePath().normalize().startsWith(dir))) {
+                log.warn("Not hiding {} from submissions: it is the root, missing, or holds something they need", dir);
+                continue;
+            }
+            hidden.add(dir.toString());
+        }
+        return hidden;
+    }
+
+    private static boolean isRoot() {
+        try {
+            return Integer.valueOf(0).equals(Files.getAttribute(Path.of("/proc/self"), "unix:uid"));
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static boolean onPath(String tool) {
+        String path = System.getenv("PATH");
+        return path != null && Stream.of(path.split(File.pathSeparator))
+                .anyMatch(dir -> Files.isExecutable(Path.of(dir, tool)));
+    }
+
+    // The sandbox uids are "others" to everything on disk, so every ancestor needs o+x
+    private static void warnIfUnreachable(Path path) {
+        for (Path p = path.toAbsolutePath().normalize(); p != null; p = p.getParent()) {
+            try {
+                if (!Files.getPosixFilePermissions(p).contains(PosixFilePermission.OTHERS_EXECUTE)) {
+                    log.warn("{} is not reachable from the sandbox because {} is not world-searchable", path, p);
+                    return;
+                }
+            } catch (IOException | UnsupportedOperationException e) {
+                return;
+            }
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.learnforge.service;
 
 import com.learnforge.entity.Course;
-import com.learnforge.entity.Lesson;
 import com.learnforge.entity.Progress;
 import com.learnforge.entity.User;
 import com.learnforge.repository.*;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -52,6 +52,14 @@ public class ProgressService {
         return progressRepository.save(progress);
     }
 
+    // Keyset page of a user's progress, in id order
+    public List<Progress> getUserProgressPage(String userId, long afterId, int count) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        return progressRepository.findPageByUserId(userId, afterId, PageRequest.of(0, count));
+    }
+
     public List<Progress> getAllUserProgress(String userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -92,21 +100,30 @@ public class ProgressService {
         return progressRepository.save(progress);  // ✅ Fixed: lowercase 'p'
     }
 
+    // Two aggregate queries: completed counts per course, then lesson counts for just those courses
     public Map<String, Object> getProgressSummary(String userId) {
-        List<Progress> progressList = getAllUserProgress(userId);
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        Map<Long, Integer> completedByCourse = new HashMap<>();
+        for (Object[] row : progressRepository.countCompletedByUserId(userId)) {
+            completedByCourse.merge((Long) row[0], ((Number) row[1]).intValue(), Integer::sum);
+        }
+        Map<Long, Long> lessonCounts = new HashMap<>();
+        if (!completedByCourse.isEmpty()) {
+            for (Object[] row : lessonRepository.countGroupedByCourseIdIn(completedByCourse.keySet())) {
+                lessonCounts.put((Long) row[0], (Long) row[1]);
+            }
+        }
 
-        int totalCourses = progressList.size();
+        int totalCourses = completedByCourse.size();
         int completedCourses = 0;
         int totalLessons = 0;
         int completedLessons = 0;
 
-        for (Progress progress : progressList) {
-            Course course = progress.getCourse();
-            List<Lesson> lessons = lessonRepository.findByCourse(course);
-
-            int courseLessonCount = lessons.size();
-            int courseCompletedCount = progress.getCompletedLessons() != null
-                    ? progress.getCompletedLessons().size() : 0;
+        for (Map.Entry<Long, Integer> entry : completedByCourse.entrySet()) {
+            int courseLessonCount = lessonCounts.getOrDefault(entry.getKey(), 0L).intValue();
+            int courseCompletedCount = entry.getValue();
 
             totalLessons += courseLessonCount;
             completedLessons += courseCompletedCount;
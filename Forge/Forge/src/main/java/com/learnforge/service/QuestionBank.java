@@ -0,0 +1,251 @@
+package com.learnforge.service;
+
+import com.learnforge.model.Question;
+import com.learnforge.repository.QuestionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
+
+/**
+ * Process-local copy of the question table used for arena draws.
+ *
+ * Questions are indexed by every combination of topic / subtopic / difficulty
+ * (any of them may be left open), so a draw is a map lookup plus an O(k)
+ * partial Fisher-Yates over the matching id array. The snapshot is immutable
+ * and swapped atomically on {@link #refresh()}.
+ */
+@Service
+public class QuestionBank {
+    private static final Logger log = LoggerFactory.getLogger(QuestionBank.class);
+
+    private static final String ANY = "*";
+
+    private final QuestionRepository questionRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of());
+
+    // Dense subtopic ids for per-user stats arrays. Append-only, so an id stays valid across refreshes.
+    private final Map<String, Integer> subtopicIds = new ConcurrentHashMap<>();
+    private volatile String[] subtopicNames = new String[0];
+
+    public QuestionBank(QuestionRepository questionRepository) {
+        this.questionRepository = questionRepository;
+    }
+
+    // Runs after the CommandLineRunner seeders, so the first snapshot sees seeded rows
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Failed to load question bank: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reload the bank from the database. Call after any write to the question table.
+     */
+    public synchronized void refresh() {
+        List<Question> all = questionRepository.findAll();
+
+        Map<Long, Question> byId = new HashMap<>(all.size() * 2);
+        Map<String, List<Long>> buckets = new HashMap<>();
+        Map<String, Set<Integer>> subtopicBuckets = new HashMap<>();
+        for (Question q : all) {
+            byId.put(q.getId(), q);
+            for (String key : keysFor(q)) {
+                buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(q.getId());
+            }
+            int subtopic = registerSubtopic(normalize(q.getSubtopic()));
+            for (String key : subtopicKeysFor(q)) {
+                subtopicBuckets.computeIfAbsent(key, k -> new TreeSet<>()).add(subtopic);
+            }
+        }
+
+        Map<String, long[]> index = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((key, ids) -> index.put(key, ids.stream().mapToLong(Long::longValue).toArray()));
+
+        Map<String, int[]> subtopics = new HashMap<>(subtopicBuckets.size() * 2);
+        subtopicBuckets.forEach((key, ids) -> subtopics.put(key, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+        snapshot = new Snapshot(byId, index, subtopics);
+        log.info("Question bank loaded: {} questions, {} index keys", byId.size(), index.size());
+    }
+
+    public int size() {
+        return snapshot.byId().size();
+    }
+
+    public Collection<Question> all() {
+        return snapshot.byId().values();
+    }
+
+    public Optional<Question> get(Long id) {
+        return Optional.ofNullable(snapshot.byId().get(id));
+    }
+
+    /**
+     * Draw up to {@code count} distinct questions. Null filters match anything.
+     */
+    public List<Question> sample(String topic, String subtopic, String difficulty, int count) {
+        Snapshot current = snapshot;
+        long[] ids = current.index().get(key(topic, subtopic, difficulty));
+        if (ids == null || count <= 0) {
+            return new ArrayList<>();
+        }
+
+        long[] picked = sampleIds(ids, count);
+        List<Question> result = new ArrayList<>(picked.length);
+        for (long id : picked) {
+            result.add(current.byId().get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #sample(String, String, String, int)}, but questions matching
+     * {@code avoid} are only used when there are not enough others.
+     */
+    public List<Question> sample(String topic, String subtopic, String difficulty, int count, LongPredicate avoid) {
+        Snapshot current = snapshot;
+        long[] ids = current.index().get(key(topic, subtopic, difficulty));
+        if (ids == null || count <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Same sparse shuffle as sampleIds, continued until enough ids pass the filter
+        int n = ids.length;
+        Map<Integer, Integer> swapped = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Question> result = new ArrayList<>(Math.min(count, n));
+        List<Long> avoided = new ArrayList<>();
+        for (int i = 0; i < n && result.size() < count; i++) {
+            int j = i + random.nextInt(n - i);
+            int atJ = swapped.getOrDefault(j, j);
+            swapped.put(j, swapped.getOrDefault(i, i));
+            long id = ids[atJ];
+            if (avoid.test(id)) {
+                avoided.add(id);
+            } else {
+                result.add(current.byId().get(id));
+            }
+        }
+        for (int i = 0; i < avoided.size() && result.size() < count; i++) {
+            result.add(current.byId().get(avoided.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Ids of the questions matching the filters, or an empty array. Null filters
+     * match anything. The array is shared and must not be modified.
+     */
+    public long[] ids(String topic, String subtopic, String difficulty) {
+        long[] ids = snapshot.index().get(key(topic, subtopic, difficulty));
+        return ids != null ? ids : new long[0];
+    }
+
+    /**
+     * Dense ids of the subtopics that have questions for this topic and difficulty.
+     */
+    public int[] subtopicsFor(String topic, String difficulty) {
+        int[] ids = snapshot.subtopics().get(key(topic, null, difficulty));
+        return ids != null ? ids : new int[0];
+    }
+
+    /**
+     * Dense id of the question's subtopic, or -1 if the bank has not seen it.
+     */
+    public int subtopicId(Question q) {
+        return subtopicIds.getOrDefault(normalize(q.getSubtopic()), -1);
+    }
+
+    public String subtopicName(int subtopicId) {
+        return subtopicNames[subtopicId];
+    }
+
+    public int subtopicCount() {
+        return subtopicNames.length;
+    }
+
+    /**
+     * Partial Fisher-Yates: only the first k slots are shuffled, and swaps are
+     * tracked in a sparse map so the shared id array is never mutated.
+     */
+    private static long[] sampleIds(long[] ids, int count) {
+        int n = ids.length;
+        int k = Math.min(count, n);
+        long[] out = new long[k];
+        Map<Integer, Integer> swapped = new HashMap<>(k * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int atJ = swapped.getOrDefault(j, j);
+            int atI = swapped.getOrDefault(i, i);
+            swapped.put(j, atI);
+            out[i] = ids[atJ];
+        }
+        return out;
+    }
+
+    private static List<String> keysFor(Question q) {
+        String topic = normalize(q.getTopic());
+        String subtopic = normalize(q.getSubtopic());
+        String difficulty = normalize(q.getDifficulty());
+
+        List<String> keys = new ArrayList<>(8);
+        for (int mask = 0; mask < 8; mask++) {
+            keys.add(join((mask & 1) != 0 ? topic : ANY,
+                    (mask & 2) != 0 ? subtopic : ANY,
+                    (mask & 4) != 0 ? difficulty : ANY));
+        }
+        return keys;
+    }
+
+    // Only refresh() registers, and it is synchronized
+    private int registerSubtopic(String subtopic) {
+        Integer id = subtopicIds.get(subtopic);
+        if (id != null) {
+            return id;
+        }
+        String[] names = Arrays.copyOf(subtopicNames, subtopicNames.length + 1);
+        names[names.length - 1] = subtopic;
+        subtopicNames = names;
+        subtopicIds.put(subtopic, names.length - 1);
+        return names.length - 1;
+    }
+
+    // The four topic / difficulty combinations, with the subtopic left open
+    private static List<String> subtopicKeysFor(Question q) {
+        String topic = normalize(q.getTopic());
+        String difficulty = normalize(q.getDifficulty());
+        return List.of(join(ANY, ANY, ANY), join(topic, ANY, ANY),
+                join(ANY, ANY, difficulty), join(topic, ANY, difficulty));
+    }
+
+    private static String key(String topic, String subtopic, String difficulty) {
+        return join(topic == null ? ANY : normalize(topic),
+                subtopic == null ? ANY : normalize(subtopic),
+                difficulty == null ? ANY : normalize(difficulty));
+    }
+
+    private static String join(String topic, String subtopic, String difficulty) {
+        return topic + '|' + subtopic + '|' + difficulty;
+    }
+
+    // MySQL's default collation compares these columns case-insensitively, so the bank does too
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(Map<Long, Question> byId, Map<String, long[]> index, Map<String, int[]> subtopics) {
+    }
+}
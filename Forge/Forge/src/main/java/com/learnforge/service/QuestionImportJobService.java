@@ -0,0 +1,133 @@
+package com.learnforge.service;
+
+import com.learnforge.model.QuestionImportJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs admin question imports in the background.
+ *
+ * The upload is streamed to a temp file so the request can return right away.
+ * The import then runs on a single-threaded executor, so two imports never
+ * race on the same text hashes. Recent jobs stay queryable by id.
+ */
+@Service
+public class QuestionImportJobService {
+    private static final Logger log = LoggerFactory.getLogger(QuestionImportJobService.class);
+
+    private static final int MAX_JOBS = 50;
+
+    private final QuestionImportService questionImportService;
+    private final QuestionBank questionBank;
+    private final SearchService searchService;
+    private final ExecutorService executor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, QuestionImportJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> jobOrder = new ConcurrentLinkedDeque<>();
+
+    public QuestionImportJobService(QuestionImportService questionImportService,
+                                    QuestionBank questionBank,
+                                    SearchService searchService,
+                                    ExecutorService questionImportExecutor,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.questionImportService = questionImportService;
+        this.questionBank = questionBank;
+        this.searchService = searchService;
+        this.executor = questionImportExecutor;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Spools the upload to disk and queues the import.
+     */
+    public QuestionImportJob submit(InputStream upload) throws IOException {
+        Path file = Files.createTempFile("question-import-", ".json");
+        try {
+            Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        QuestionImportJob job = new QuestionImportJob(UUID.randomUUID().toString(), Files.size(file));
+        register(job);
+        executor.execute(() -> run(job, file));
+        return job;
+    }
+
+    public Optional<QuestionImportJob> get(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(QuestionImportJob job, Path file) {
+        job.start();
+        try (InputStream in = Files.newInputStream(file)) {
+            QuestionImportService.Result result = questionImportService.importQuestions(in, new QuestionImportService.Listener() {
+                @Override
+                public void onProgress(QuestionImportService.Result soFar, long bytesRead) {
+                    job.progress(soFar, bytesRead);
+                }
+
+                @Override
+                public void onRowError(int row, String message) {
+                    job.rowError(row, message);
+                }
+            });
+            job.complete(result);
+            log.info("Question import {} finished: {}", job.getId(), result);
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            log.error("Question import {} failed: {}", job.getId(), e.getMessage(), e);
+        } finally {
+            deleteQuietly(file);
+        }
+
+        // Even a failed import may have written some chunks
+        if (job.getCounts().inserted() > 0 || job.getCounts().updated() > 0) {
+            questionBank.refresh();
+            searchService.indexQuestions(questionBank.all());
+            eventPublisher.publishEvent(new CatalogChangedEvent("question"));
+        }
+    }
+
+    private void register(QuestionImportJob job) {
+        jobs.put(job.getId(), job);
+        jobOrder.addLast(job.getId());
+        // Forget the oldest finished jobs once there are too many
+        while (jobs.size() > MAX_JOBS) {
+            String oldest = jobOrder.peekFirst();
+            QuestionImportJob candidate = oldest != null ? jobs.get(oldest) : null;
+            if (candidate != null && !candidate.isFinished()) {
+                break;
+            }
+            jobOrder.pollFirst();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.learnforge.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.learnforge.dto.QuestionImportDto;
+import com.learnforge.model.Question;
+import com.learnforge.repository.QuestionRepository;
+import com.learnforge.util.QuestionFingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Streams questions into the question table.
+ *
+ * The input is read one element at a time with Jackson's streaming parser and
+ * handled in chunks, so memory stays flat however large the file is. Questions
+ * are identified by {@link QuestionFingerprint#textHash}: each chunk looks up
+ * its hashes in one indexed IN query, and only new rows or rows whose content
+ * hash changed are written, in JDBC batches.
+ */
+@Service
+public class QuestionImportService {
+    private static final Logger log = LoggerFactory.getLogger(QuestionImportService.class);
+
+    private static final int BATCH_SIZE = 500;
+    // question_text is a TEXT column (bytes, up to 4 per character); the options are VARCHAR(1000)
+    // and the other columns VARCHAR(255), counted in characters. See Question.
+    private static final int MAX_TEXT_LENGTH = 65_535 / 4;
+    private static final int MAX_OPTION_LENGTH = 1000;
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    private static final String INSERT_SQL = "INSERT INTO question (question_text, option_a, option_b, option_c, option_d, "
+            + "correct_answer, topic, subtopic, difficulty, explanation, content_hash, text_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE question SET question_text = ?, option_a = ?, option_b = ?, option_c = ?, "
+            + "option_d = ?, correct_answer = ?, topic = ?, subtopic = ?, difficulty = ?, explanation = ?, content_hash = ?, "
+            + "text_hash = ? WHERE id = ?";
+    private static final String SET_TEXT_HASH_SQL = "UPDATE question SET text_hash = ? WHERE id = ?";
+
+    private final QuestionRepository questionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public QuestionImportService(QuestionRepository questionRepository, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.questionRepository = questionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Row counts of an import. Skipped rows repeat an earlier row of the same
+     * input; failed rows could not be read or did not pass validation.
+     */
+    public record Result(int read, int inserted, int updated, int unchanged, int skipped, int failed) {
+    }
+
+    /**
+     * Receives progress while an import runs, on the importing thread.
+     */
+    public interface Listener {
+        /**
+         * Called after each written chunk with the totals so far.
+         */
+        default void onProgress(Result soFar, long bytesRead) {
+        }
+
+        /**
+         * @param row 1-based position of the row in the input
+         */
+        default void onRowError(int row, String message) {
+        }
+    }
+
+    public Result importQuestions(InputStream in) throws IOException {
+        return importQuestions(in, new Listener() {
+        });
+    }
+
+    /**
+     * Imports a JSON array of questions, or one JSON object after another
+     * (NDJSON). A row that fails to map or validate is reported and skipped;
+     * malformed JSON ends the import, keeping the chunks already written.
+     */
+    public Result importQuestions(InputStream in, Listener listener) throws IOException {
+        Counts counts = new Counts();
+        // Hashes already taken by an earlier row of this file; the first copy wins
+        Set<Long> seen = new HashSet<>();
+        List<Question> chunk = new ArrayList<>(BATCH_SIZE);
+
+        ObjectReader reader = objectMapper.readerFor(QuestionImportDto.class);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            // Either one top-level array or a plain sequence of top-level objects
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            for (; token == JsonToken.START_OBJECT; token = parser.nextToken()) {
+                int row = ++counts.read;
+                // Read the row as a tree first so a bad field fails only this row, not the parser
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(parser);
+                } catch (JsonProcessingException e) {
+                    // Nothing after broken JSON can be trusted; keep what was read before it
+                    writeChunk(chunk, counts);
+                    listener.onProgress(counts.toResult(), parser.currentLocation().getByteOffset());
+                    throw new IOException("Malformed JSON at row " + row + ": " + e.getOriginalMessage(), e);
+                }
+                Question q;
+                try {
+                    q = toQuestion(reader.treeToValue(node, QuestionImportDto.class));
+                } catch (JsonProcessingException e) {
+                    counts.failed++;
+                    listener.onRowError(row, e.getOriginalMessage());
+                    continue;
+                }
+                String error = validate(q);
+                if (error != null) {
+                    counts.failed++;
+                    listener.onRowError(row, error);
+                    continue;
+                }
+                if (!seen.add(q.getTextHash())) {
+                    counts.skipped++;
+                    continue;
+                }
+                chunk.add(q);
+                if (chunk.size() >= BATCH_SIZE) {
+                    writeChunk(chunk, counts);
+                    listener.onProgress(counts.toResult(), parser.currentLocation().getByteOffset());
+                }
+            }
+            writeChunk(chunk, counts);
+            listener.onProgress(counts.toResult(), parser.currentLocation().getByteOffset());
+        }
+        return counts.toResult();
+    }
+
+    /**
+     * Fills in text hashes for rows stored before the column existed. A row whose
+     * text repeats one that already has the hash is left null and reported.
+     *
+     * @return number of rows hashed
+     */
+    public int backfillTextHashes() {
+        int hashed = 0, duplicates = 0;
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = questionRepository.findUnhashedAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            Map<Long, Long> idByHash = new LinkedHashMap<>();
+            for (Object[] row : page) {
+                afterId = (Long) row[0];
+                Long textHash = QuestionFingerprint.textHash((String) row[1]);
+                if (textHash != null && idByHash.putIfAbsent(textHash, afterId) != null) {
+                    duplicates++;
+                }
+            }
+            if (idByHash.isEmpty()) {
+                continue;
+            }
+            for (Object[] row : questionRepository.findHashesByTextHash(idByHash.keySet())) {
+                idByHash.remove((Long) row[1]);
+                duplicates++;
+            }
+            List<Map.Entry<Long, Long>> updates = new ArrayList<>(idByHash.entrySet());
+            jdbcTemplate.batchUpdate(SET_TEXT_HASH_SQL, updates, updates.size(), (ps, e) -> {
+                ps.setLong(1, e.getKey());
+                ps.setLong(2, e.getValue());
+            });
+            hashed += updates.size();
+        } while (page.size() == BATCH_SIZE);
+
+        if (duplicates > 0) {
+            log.warn("{} questions repeat the text of another question and were left without a text hash", duplicates);
+        }
+        return hashed;
+    }
+
+    private void writeChunk(List<Question> chunk, Counts counts) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Long, Question> byHash = new HashMap<>(chunk.size() * 2);
+        for (Question q : chunk) {
+            byHash.put(q.getTextHash(), q);
+        }
+
+        // (id, textHash, contentHash) of the rows this chunk already matches
+        Map<Long, Object[]> stored = new HashMap<>();
+        for (Object[] row : questionRepository.findHashesByTextHash(byHash.keySet())) {
+            stored.put((Long) row[1], row);
+        }
+
+        List<Question> inserts = new ArrayList<>();
+        List<Question> updates = new ArrayList<>();
+        for (Question q : chunk) {
+            Object[] existing = stored.get(q.getTextHash());
+            if (existing == null) {
+                inserts.add(q);
+            } else if (!q.getContentHash().equals(existing[2])) {
+                q.setId((Long) existing[0]);
+                updates.add(q);
+            } else {
+                counts.unchanged++;
+            }
+        }
+        counts.inserted += insert(inserts);
+        counts.updated += update(updates);
+        chunk.clear();
+    }
+
+    private int insert(List<Question> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, q) -> {
+            ps.setString(1, q.getQuestionText());
+            ps.setString(2, q.getOptionA());
+            ps.setString(3, q.getOptionB());
+            ps.setString(4, q.getOptionC());
+            ps.setString(5, q.getOptionD());
+            ps.setString(6, q.getCorrectAnswer());
+            ps.setString(7, q.getTopic());
+            ps.setString(8, q.getSubtopic());
+            ps.setString(9, q.getDifficulty());
+            ps.setString(10, q.getExplanation());
+            ps.setString(11, q.getContentHash());
+            ps.setLong(12, q.getTextHash());
+        });
+        return batch.size();
+    }
+
+    private int update(List<Question> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, q) -> {
+            ps.setString(1, q.getQuestionText());
+            ps.setString(2, q.getOptionA());
+            ps.setString(3, q.getOptionB());
+            ps.setString(4, q.getOptionC());
+            ps.setString(5, q.getOptionD());
+            ps.setString(6, q.getCorrectAnswer());
+            ps.setString(7, q.getTopic());
+            ps.setString(8, q.getSubtopic());
+            ps.setString(9, q.getDifficulty());
+            ps.setString(10, q.getExplanation());
+            ps.setString(11, q.getContentHash());
+            ps.setLong(12, q.getTextHash());
+            ps.setLong(13, q.getId());
+        });
+        return batch.size();
+    }
+
+    /**
+     * Maps either JSON layout onto a Question. Hashes are only set when there is question text.
+     */
+    static Question toQuestion(QuestionImportDto dto) {
+        String text = firstNonBlank(dto.getQuestionText(), dto.getQuestion());
+        Question q = new Question();
+        q.setQuestionText(text);
+        List<String> options = dto.getOptions();
+        if (options != null) {
+            // Some questions only have two or three choices; the remaining slots stay empty
+            q.setOptionA(options.size() > 0 ? options.get(0) : null);
+            q.setOptionB(options.size() > 1 ? options.get(1) : null);
+            q.setOptionC(options.size() > 2 ? options.get(2) : null);
+            q.setOptionD(options.size() > 3 ? options.get(3) : null);
+        } else {
+            q.setOptionA(dto.getOptionA());
+            q.setOptionB(dto.getOptionB());
+            q.setOptionC(dto.getOptionC());
+            q.setOptionD(dto.getOptionD());
+        }
+        q.setCorrectAnswer(firstNonBlank(dto.getCorrectAnswer(), dto.getAnswer()));
+        q.setTopic(Objects.requireNonNullElse(firstNonBlank(dto.getTopic()), "General"));
+        q.setSubtopic(dto.getSubtopic());
+        q.setDifficulty(Objects.requireNonNullElse(firstNonBlank(dto.getDifficulty()), "medium"));
+        q.setExplanation(dto.getExplanation());
+        if (text != null) {
+            q.setTextHash(QuestionFingerprint.textHash(text));
+            q.setContentHash(QuestionFingerprint.contentHash(q));
+        }
+        return q;
+    }
+
+    /**
+     * @return why the question cannot be stored, or null if it can
+     */
+    static String validate(Question q) {
+        if (q.getQuestionText() == null) {
+            return "missing question text";
+        }
+        if (q.getCorrectAnswer() == null) {
+            return "missing answer";
+        }
+        if (q.getOptionA() == null || q.getOptionB() == null) {
+            return "needs at least two options";
+        }
+        return Stream.of(
+                        tooLong("question text", q.getQuestionText(), MAX_TEXT_LENGTH),
+                        tooLong("option A", q.getOptionA(), MAX_OPTION_LENGTH),
+                        tooLong("option B", q.getOptionB(), MAX_OPTION_LENGTH),
+                        tooLong("option C", q.getOptionC(), MAX_OPTION_LENGTH),
+                        tooLong("option D", q.getOptionD(), MAX_OPTION_LENGTH),
+                        tooLong("answer", q.getCorrectAnswer(), MAX_COLUMN_LENGTH),
+                        tooLong("topic", q.getTopic(), MAX_COLUMN_LENGTH),
+                        tooLong("subtopic", q.getSubtopic(), MAX_COLUMN_LENGTH),
+                        tooLong("difficulty", q.getDifficulty(), MAX_COLUMN_LENGTH),
+                        tooLong("explanation", q.getExplanation(), MAX_COLUMN_LENGTH))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String tooLong(String column, String value, int maxLength) {
+        return value != null && value.length() > maxLength ? column + " longer than " + maxLength + " characters" : null;
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static final class Counts {
+        int read, inserted, updated, unchanged, skipped, failed;
+
+        Result toResult() {
+            return new Result(read, inserted, updated, unchanged, skipped, failed);
+        }
+    }
+}
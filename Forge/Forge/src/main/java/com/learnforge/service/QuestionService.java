@@ -1,22 +1,29 @@
 package com.learnforge.service;
 
 import com.learnforge.model.Question;
-import com.learnforge.repository.QuestionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class QuestionService {
-    private final QuestionRepository questionRepository;
+    private final QuestionBank questionBank;
+    private final AdaptiveQuestionSelector adaptiveQuestionSelector;
 
     public List<Question> getRandomQuestions(String topic, String difficulty, int limit) {
-        List<Question> all = questionRepository.findByTopicAndDifficulty(topic, difficulty);
-        Collections.shuffle(all);
-        return all.stream().limit(limit).toList();
+        return questionBank.sample(topic, null, difficulty, limit);
+    }
+
+    /**
+     * Adaptive draw for a known user, uniform otherwise.
+     */
+    public List<Question> getQuestionsFor(String userId, String topic, String difficulty, int limit) {
+        if (userId == null || userId.isBlank()) {
+            return getRandomQuestions(topic, difficulty, limit);
+        }
+        return adaptiveQuestionSelector.select(userId, topic, difficulty, limit);
     }
 
 }
@@ -3,6 +3,7 @@ package com.learnforge.service;
 import com.learnforge.entity.Resource;
 import com.learnforge.repository.ResourceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,12 +15,12 @@ public class ResourceService {
     @Autowired
     private ResourceRepository resourceRepository;
 
-    // ✅ Get all resources by lesson ID (using relationship)
-    public List<Resource> getResourcesByLessonId(Long lessonId) {
-        System.out.println("📚 Getting resources for lesson: " + lessonId);
-        List<Resource> resources = resourceRepository.findByLesson_LessonId(lessonId);
-        System.out.println("✅ Found " + resources.size() + " resources");
-        return resources;
+    @Autowired
+    private SearchService searchService;
+
+    // ✅ Get up to count resources of a lesson after afterId, in id order
+    public List<Resource> getResourcesByLessonId(Long lessonId, long afterId, int count) {
+        return resourceRepository.findPageByLessonId(lessonId, afterId, PageRequest.of(0, count));
     }
 
     // ✅ Add a single resource
@@ -31,7 +32,9 @@ public class ResourceService {
             System.out.println("⚠️ Skipping duplicate resource: " + resource.getUrl());
             return null;
         }
-        return resourceRepository.save(resource);
+        Resource saved = resourceRepository.save(resource);
+        searchService.indexResource(saved);
+        return saved;
     }
 
 
@@ -40,6 +43,7 @@ public class ResourceService {
     public void deleteResource(Long resourceId) {
         System.out.println("🗑️ Deleting resource: " + resourceId);
         resourceRepository.deleteById(resourceId);
+        searchService.removeResource(resourceId);
         System.out.println("✅ Resource deleted");
     }
 
@@ -51,7 +55,7 @@ public class ResourceService {
             return;
         }
         System.out.println("💾 Saving " + resources.size() + " scraped resources...");
-        resourceRepository.saveAll(resources);
+        resourceRepository.saveAll(resources).forEach(searchService::indexResource);
         System.out.println("✅ All resources saved successfully.");
     }
 }
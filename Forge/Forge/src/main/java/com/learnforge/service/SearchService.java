@@ -0,0 +1,218 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.SearchHit;
+import com.learnforge.dto.SearchResponse;
+import com.learnforge.entity.Course;
+import com.learnforge.entity.Lesson;
+import com.learnforge.entity.Resource;
+import com.learnforge.model.Question;
+import com.learnforge.repository.CourseRepository;
+import com.learnforge.repository.LessonRepository;
+import com.learnforge.repository.QuestionRepository;
+import com.learnforge.repository.ResourceRepository;
+import com.learnforge.util.InvertedIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unified full-text search over courses, lessons, resources and questions.
+ *
+ * The index is built from the repositories at startup and then kept current
+ * by the services that write those tables. Updates made inside a transaction
+ * are applied once it commits, so a rollback never leaves a phantom hit.
+ */
+@Service
+public class SearchService {
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    public static final String COURSE = "course";
+    public static final String LESSON = "lesson";
+    public static final String RESOURCE = "resource";
+    public static final String QUESTION = "question";
+
+    private static final int MAX_PAGE_SIZE = 50;
+    // Deeper pages would make every search keep this many hits in its top-k heap
+    static final int MAX_RESULTS = 1000;
+    private static final int SNIPPET_LENGTH = 160;
+
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final ResourceRepository resourceRepository;
+    private final QuestionRepository questionRepository;
+    private final InvertedIndex<SearchHit> index = new InvertedIndex<>();
+
+    public SearchService(CourseRepository courseRepository,
+                         LessonRepository lessonRepository,
+                         ResourceRepository resourceRepository,
+                         QuestionRepository questionRepository) {
+        this.courseRepository = courseRepository;
+        this.lessonRepository = lessonRepository;
+        this.resourceRepository = resourceRepository;
+        this.questionRepository = questionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            long start = System.currentTimeMillis();
+            courseRepository.findAll().forEach(this::putCourse);
+            lessonRepository.findAll().forEach(this::putLesson);
+            resourceRepository.findAllWithLesson().forEach(this::putResource);
+            questionRepository.findAll().forEach(this::putQuestion);
+            log.info("Search index built: {} documents in {} ms", index.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to build search index: {}", e.getMessage(), e);
+        }
+    }
+
+    public SearchResponse search(String query, String type, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        String wantedType = type == null || type.isBlank() ? null : type.trim().toLowerCase();
+
+        long offset = (long) pageNumber * pageSize;
+        if (offset >= MAX_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Only the first " + MAX_RESULTS + " results can be paged through");
+        }
+
+        InvertedIndex.Page<SearchHit> result = index.search(query,
+                wantedType == null ? null : hit -> wantedType.equals(hit.getType()),
+                (int) offset, pageSize);
+
+        List<SearchHit> hits = new ArrayList<>(result.hits().size());
+        for (InvertedIndex.Hit<SearchHit> hit : result.hits()) {
+            hits.add(hit.doc().withScore(hit.score()));
+        }
+        return new SearchResponse(query, pageNumber, pageSize, result.total(), hits);
+    }
+
+    /**
+     * Ids of the best matches of one type, best first.
+     */
+    public List<Long> searchIds(String query, String type, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (InvertedIndex.Hit<SearchHit> hit : index.search(query, h -> type.equals(h.getType()), 0, limit).hits()) {
+            ids.add(hit.doc().getId());
+        }
+        return ids;
+    }
+
+    public void indexCourse(Course course) {
+        afterCommit(() -> putCourse(course));
+    }
+
+    public void removeCourse(Long courseId) {
+        afterCommit(() -> index.remove(key(COURSE, courseId)));
+    }
+
+    public void indexLesson(Lesson lesson) {
+        afterCommit(() -> putLesson(lesson));
+    }
+
+    public void removeLesson(Long lessonId, Collection<Long> resourceIds) {
+        afterCommit(() -> {
+            index.remove(key(LESSON, lessonId));
+            resourceIds.forEach(id -> index.remove(key(RESOURCE, id)));
+        });
+    }
+
+    public void indexResource(Resource resource) {
+        afterCommit(() -> putResource(resource));
+    }
+
+    public void removeResource(Long resourceId) {
+        afterCommit(() -> index.remove(key(RESOURCE, resourceId)));
+    }
+
+    /**
+     * Re-indexes the full question set, dropping questions no longer in it.
+     */
+    public void indexQuestions(Collection<Question> questions) {
+        Set<String> keep = new HashSet<>(questions.size() * 2);
+        for (Question q : questions) {
+            putQuestion(q);
+            keep.add(key(QUESTION, q.getId()));
+        }
+        index.removeIf(k -> k.startsWith(QUESTION + ":") && !keep.contains(k));
+    }
+
+    private void putCourse(Course c) {
+        SearchHit hit = new SearchHit(COURSE, c.getCourseId(), c.getCourseTitle(),
+                snippet(c.getCourseDescription()), c.getCourseId(), null, 0);
+        index.put(key(COURSE, c.getCourseId()), hit, c.getCourseTitle(),
+                join(c.getCourseDescription(), c.getCategory(), c.getDifficulty(), c.getInstructor()));
+    }
+
+    private void putLesson(Lesson l) {
+        Long courseId = l.getCourse() != null ? l.getCourse().getCourseId() : null;
+        SearchHit hit = new SearchHit(LESSON, l.getLessonId(), l.getLessonName(), null, courseId, l.getLessonId(), 0);
+        index.put(key(LESSON, l.getLessonId()), hit, l.getLessonName(), null);
+    }
+
+    private void putResource(Resource r) {
+        Lesson lesson = r.getLesson();
+        Long lessonId = lesson != null ? lesson.getLessonId() : null;
+        Long courseId = lesson != null && lesson.getCourse() != null ? lesson.getCourse().getCourseId() : null;
+        SearchHit hit = new SearchHit(RESOURCE, r.getId(), r.getTitle(), snippet(r.getDescription()), courseId, lessonId, 0);
+        index.put(key(RESOURCE, r.getId()), hit, r.getTitle(), join(r.getType(), r.getDescription()));
+    }
+
+    // Explanations and the answer stay out of the index, so search cannot give answers away
+    private void putQuestion(Question q) {
+        SearchHit hit = new SearchHit(QUESTION, q.getId(), q.getQuestionText(),
+                join(q.getTopic(), q.getSubtopic(), q.getDifficulty()), null, null, 0);
+        index.put(key(QUESTION, q.getId()), hit, q.getQuestionText(),
+                join(q.getTopic(), q.getSubtopic(), q.getOptionA(), q.getOptionB(), q.getOptionC(), q.getOptionD()));
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    private static String join(String... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(part);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String snippet(String text) {
+        if (text == null || text.length() <= SNIPPET_LENGTH) {
+            return text;
+        }
+        return text.substring(0, SNIPPET_LENGTH) + "…";
+    }
+}
@@ -0,0 +1,172 @@
+package com.learnforge.service;
+
+import com.learnforge.entity.UserSeenQuestions;
+import com.learnforge.repository.UserSeenQuestionsRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Which questions each user has already answered in the arena.
+ *
+ * A user's set is a Roaring bitmap over question ids, a few hundred bytes for
+ * a typical history. Sets are stored as blobs in user_seen_questions and kept
+ * in an LRU cache of active users. Question selection only reads the cache; a
+ * miss there is filled by a primary-key read in the background, and only for
+ * users that have a row. Recording a result loads the set on its after-commit
+ * path.
+ */
+@Service
+public class SeenQuestionService {
+    private static final Logger log = LoggerFactory.getLogger(SeenQuestionService.class);
+
+    private final UserSeenQuestionsRepository repository;
+    private final ExecutorService loader;
+    private final Map<String, RoaringBitmap> cache;
+    // Users with a background load queued or running, so a burst of requests queues one read
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+
+    public SeenQuestionService(UserSeenQuestionsRepository repository,
+                               ExecutorService seenQuestionLoader,
+                               @Value("${arena.seen.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.loader = seenQuestionLoader;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RoaringBitmap> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * A copy of the user's cached seen set, safe to read without locking. Never
+     * touches the database: on a miss it returns an empty set and loads the
+     * user's row in the background for their next request.
+     */
+    public RoaringBitmap cachedSeen(String userId) {
+        RoaringBitmap bitmap;
+        synchronized (cache) {
+            bitmap = cache.get(userId);
+        }
+        if (bitmap == null) {
+            preload(userId);
+            return new RoaringBitmap();
+        }
+        synchronized (bitmap) {
+            return bitmap.clone();
+        }
+    }
+
+    // After commit, so answers from a rolled-back submission are not marked seen. The
+    // submission's transaction is finished by then, so the save needs one of its own.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onResultRecorded(ArenaResultRecordedEvent event) {
+        if (event.outcomes() == null || event.outcomes().isEmpty()) {
+            return;
+        }
+        String userId = event.result().getUserId();
+        RoaringBitmap bitmap = load(userId);
+        // Saving under the user's lock keeps two submissions from writing out of order
+        synchronized (bitmap) {
+            boolean changed = false;
+            for (Long questionId : event.outcomes().keySet()) {
+                if (questionId != null && questionId > 0 && questionId <= Integer.MAX_VALUE) {
+                    changed |= bitmap.checkedAdd(questionId.intValue());
+                }
+            }
+            if (!changed) {
+                return;
+            }
+            bitmap.runOptimize();
+            try {
+                repository.save(new UserSeenQuestions(userId, serialize(bitmap), null));
+            } catch (Exception e) {
+                // The cached copy stays ahead; the next save catches the row up
+                log.warn("Could not save seen questions for {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private void preload(String userId) {
+        if (userId == null || !loading.add(userId)) {
+            return;
+        }
+        try {
+            loader.execute(() -> {
+                try {
+                    // Unknown ids stay out of the cache, so they cannot evict real users
+                    repository.findById(userId).ifPresent(row -> {
+                        RoaringBitmap loaded = deserialize(row.getBitmap());
+                        synchronized (cache) {
+                            cache.putIfAbsent(userId, loaded);
+                        }
+                    });
+                } catch (Exception e) {
+                    log.warn("Could not load seen questions for {}: {}", userId, e.getMessage());
+                } finally {
+                    loading.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full; a later request tries again
+            loading.remove(userId);
+        }
+    }
+
+    private RoaringBitmap load(String userId) {
+        synchronized (cache) {
+            RoaringBitmap cached = cache.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        RoaringBitmap loaded = repository.findById(userId)
+                .map(UserSeenQuestions::getBitmap)
+                .map(SeenQuestionService::deserialize)
+                .orElseGet(RoaringBitmap::new);
+        synchronized (cache) {
+            // Another thread may have loaded it meanwhile; keep the first so updates are not lost
+            return cache.computeIfAbsent(userId, id -> loaded);
+        }
+    }
+
+    private static byte[] serialize(RoaringBitmap bitmap) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bitmap.serializedSizeInBytes());
+        try (DataOutputStream data = new DataOutputStream(out)) {
+            bitmap.serialize(data);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize seen questions", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static RoaringBitmap deserialize(byte[] bytes) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        try (DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            bitmap.deserialize(data);
+        } catch (IOException e) {
+            log.warn("Discarding unreadable seen-question bitmap: {}", e.getMessage());
+            return new RoaringBitmap();
+        }
+        return bitmap;
+    }
+}
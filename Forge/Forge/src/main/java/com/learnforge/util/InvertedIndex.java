@@ -0,0 +1,264 @@
+package com.learnforge.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory full-text index with BM25 ranking.
+ *
+ * Documents have a title and a body; title terms count {@link #TITLE_BOOST}
+ * times. Terms live in a sorted dictionary, so each query token also matches
+ * the terms it is a prefix of, at a discount. Documents are added, replaced
+ * and removed one at a time under a write lock; searches share a read lock.
+ */
+public class InvertedIndex<T> {
+
+    public static final float TITLE_BOOST = 3f;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MIN_PREFIX = 2;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+            "it", "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+    public record Hit<T>(T doc, double score) {}
+
+    public record Page<T>(List<Hit<T>> hits, int total) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (doc slot -> weighted term frequency)
+    private final NavigableMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<Doc<T>> docs = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private double totalLength;
+
+    /**
+     * Adds the document, replacing any previous one with the same key.
+     */
+    public void put(String key, T doc, String title, String body) {
+        Map<String, Float> tf = new HashMap<>();
+        float length = 0;
+        for (String term : tokenize(title)) {
+            tf.merge(term, TITLE_BOOST, Float::sum);
+            length += TITLE_BOOST;
+        }
+        for (String term : tokenize(body)) {
+            tf.merge(term, 1f, Float::sum);
+            length += 1;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            int slot = freeSlots.isEmpty() ? docs.size() : freeSlots.pop();
+            Doc<T> entry = new Doc<>(key, doc, length, tf.keySet().toArray(new String[0]));
+            if (slot == docs.size()) {
+                docs.add(entry);
+            } else {
+                docs.set(slot, entry);
+            }
+            slots.put(key, slot);
+            tf.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(slot, weight));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeIf(Predicate<String> keyFilter) {
+        lock.writeLock().lock();
+        try {
+            for (String key : new ArrayList<>(slots.keySet())) {
+                if (keyFilter.test(key)) {
+                    removeLocked(key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked documents matching any query term, skipping {@code offset} and
+     * returning at most {@code limit}. The total counts every match that passes the filter;
+     * an offset past it gives an empty page.
+     */
+    public Page<T> search(String query, Predicate<? super T> filter, int offset, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty() || limit <= 0 || offset < 0) {
+            return new Page<>(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            int n = slots.size();
+            if (n == 0) {
+                return new Page<>(List.of(), 0);
+            }
+            double avgLength = Math.max(1e-9, totalLength / n);
+
+            // Dense per-slot accumulators; touched lists keep the passes proportional to the matches
+            int slotCount = docs.size();
+            double[] scores = new double[slotCount];
+            int[] matched = new int[slotCount];
+            int matchedCount = 0;
+            double[] best = new double[slotCount];
+            int[] touched = new int[slotCount];
+            for (String token : tokens) {
+                // A token scores each document once, through its best matching term
+                int touchedCount = 0;
+                Map<Integer, Float> exact = postings.get(token);
+                if (exact != null) {
+                    touchedCount = accumulate(best, touched, touchedCount, exact, 1.0, n, avgLength);
+                }
+                if (token.length() >= MIN_PREFIX) {
+                    int expanded = 0;
+                    for (Map<Integer, Float> posting
+                            : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                        if (++expanded > MAX_EXPANSIONS) {
+                            break;
+                        }
+                        touchedCount = accumulate(best, touched, touchedCount, posting, PREFIX_WEIGHT, n, avgLength);
+                    }
+                }
+                for (int i = 0; i < touchedCount; i++) {
+                    int slot = touched[i];
+                    if (scores[slot] == 0) {
+                        matched[matchedCount++] = slot;
+                    }
+                    scores[slot] += best[slot];
+                    best[slot] = 0;
+                }
+            }
+
+            int wanted = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+            Comparator<Hit<T>> byScore = Comparator.comparingDouble(Hit::score);
+            PriorityQueue<Hit<T>> top = new PriorityQueue<>(Math.min(wanted, matchedCount) + 1, byScore);
+            int total = 0;
+            for (int i = 0; i < matchedCount; i++) {
+                int slot = matched[i];
+                double score = scores[slot];
+                T doc = docs.get(slot).payload;
+                if (filter != null && !filter.test(doc)) {
+                    continue;
+                }
+                total++;
+                if (top.size() < wanted) {
+                    top.add(new Hit<>(doc, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Hit<>(doc, score));
+                }
+            }
+
+            List<Hit<T>> ranked = new ArrayList<>(top);
+            ranked.sort(byScore.reversed());
+            List<Hit<T>> page = offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+            return new Page<>(List.copyOf(page), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercased runs of letters and digits, keeping '+' and '#' so "c++" and "c#" survive.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            boolean wordChar = Character.isLetterOrDigit(c) || (start >= 0 && (c == '+' || c == '#'));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private int accumulate(double[] best, int[] touched, int touchedCount, Map<Integer, Float> posting,
+                           double weight, int n, double avgLength) {
+        int df = posting.size();
+        double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        for (Map.Entry<Integer, Float> e : posting.entrySet()) {
+            int slot = e.getKey();
+            float tf = e.getValue();
+            double norm = K1 * (1 - B + B * docs.get(slot).length / avgLength);
+            double score = weight * idf * tf * (K1 + 1) / (tf + norm);
+            if (best[slot] == 0) {
+                touched[touchedCount++] = slot;
+            }
+            if (score > best[slot]) {
+                best[slot] = score;
+            }
+        }
+        return touchedCount;
+    }
+
+    private void removeLocked(String key) {
+        Integer slot = slots.remove(key);
+        if (slot == null) {
+            return;
+        }
+        Doc<T> doc = docs.get(slot);
+        for (String term : doc.terms) {
+            Map<Integer, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(slot);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= doc.length;
+        docs.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    private record Doc<T>(String key, T payload, float length, String[] terms) {}
+}
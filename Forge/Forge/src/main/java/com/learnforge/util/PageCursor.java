@@ -0,0 +1,74 @@
+package com.learnforge.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keyset pagination helpers for list endpoints.
+ *
+ * A page is the rows whose key is greater than the cursor's, in key order.
+ * The cursor is an opaque token for the last key of the previous page and
+ * comes back in the {@link #HEADER} response header while more rows remain,
+ * so response bodies stay plain arrays.
+ */
+public final class PageCursor {
+
+    public static final String HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String PREFIX = "k:";
+
+    private PageCursor() {
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    /**
+     * The key to seek past; 0 for the first page.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new IllegalArgumentException(decoded);
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public static String encode(long lastKey) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds the response from a query that fetched up to {@code limit + 1} rows;
+     * the extra row only signals that another page exists.
+     */
+    public static <T> ResponseEntity<List<T>> respond(List<T> fetched, int limit, ToLongFunction<T> key) {
+        if (fetched.size() <= limit) {
+            return ResponseEntity.ok(fetched);
+        }
+        List<T> page = fetched.subList(0, limit);
+        return ResponseEntity.ok()
+                .header(HEADER, encode(key.applyAsLong(page.get(limit - 1))))
+                .body(page);
+    }
+}
@@ -0,0 +1,121 @@
+package com.learnforge.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie that keeps the top N values at every node.
+ *
+ * Each value can be reached through several keys (for example every word
+ * start of a title). A lookup walks the prefix and returns the node's
+ * precomputed list, so its cost depends on the prefix length only, never on
+ * how many values share the prefix. Keys are lowercased and cut to
+ * {@link #MAX_DEPTH} characters.
+ */
+public final class PrefixTrie<T> {
+
+    public static final int MAX_DEPTH = 64;
+
+    public record Entry<T>(T value, double weight, List<String> keys) {}
+
+    private final Node root;
+    private final Object[] values;
+    private final int size;
+
+    private PrefixTrie(Node root, Object[] values) {
+        this.root = root;
+        this.values = values;
+        this.size = values.length;
+    }
+
+    public static <T> PrefixTrie<T> empty() {
+        return new PrefixTrie<>(new Node(new char[0], new Node[0], new int[0]), new Object[0]);
+    }
+
+    public static <T> PrefixTrie<T> build(List<Entry<T>> entries, int topN) {
+        // Heaviest first, so every node's list fills in rank order and the first N win
+        List<Entry<T>> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingDouble((Entry<T> e) -> e.weight()).reversed());
+
+        Builder root = new Builder();
+        Object[] values = new Object[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            Entry<T> entry = sorted.get(i);
+            values[i] = entry.value();
+            for (String key : entry.keys()) {
+                String normalized = normalize(key);
+                Builder node = root;
+                node.offer(i, topN);
+                for (int d = 0; d < normalized.length() && d < MAX_DEPTH; d++) {
+                    node = node.children.computeIfAbsent(normalized.charAt(d), c -> new Builder());
+                    node.offer(i, topN);
+                }
+            }
+        }
+        return new PrefixTrie<>(root.freeze(), values);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Up to {@code limit} values reachable through a key starting with {@code prefix}, heaviest first.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> top(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        Node node = root;
+        for (int d = 0; d < normalized.length() && d < MAX_DEPTH; d++) {
+            int i = Arrays.binarySearch(node.labels, normalized.charAt(d));
+            if (i < 0) {
+                return List.of();
+            }
+            node = node.children[i];
+        }
+        int n = Math.min(limit, node.top.length);
+        List<T> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add((T) values[node.top[i]]);
+        }
+        return result;
+    }
+
+    // Lowercase with runs of whitespace collapsed, so "Data  Structures" and "data structures" meet
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Node(char[] labels, Node[] children, int[] top) {}
+
+    private static final class Builder {
+        final Map<Character, Builder> children = new TreeMap<>();
+        final List<Integer> top = new ArrayList<>();
+
+        // Several keys of one value can pass through the same node; count it once
+        void offer(int value, int topN) {
+            if (top.size() < topN && !top.contains(value)) {
+                top.add(value);
+            }
+        }
+
+        Node freeze() {
+            char[] labels = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> e : children.entrySet()) {
+                labels[i] = e.getKey();
+                frozen[i++] = e.getValue().freeze();
+            }
+            return new Node(labels, frozen, top.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.learnforge.util;
+
+import com.learnforge.model.Question;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Hashes used to recognise questions without comparing their text.
+ *
+ * {@link #textHash} identifies a question: the first 64 bits of SHA-256 over
+ * its normalized text, stored in an indexed column. {@link #contentHash}
+ * covers every imported field and only tells whether a stored row is stale.
+ */
+public final class QuestionFingerprint {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QuestionFingerprint() {
+    }
+
+    /**
+     * Case and whitespace differences do not make a different question.
+     */
+    public static String normalize(String text) {
+        return WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    public static Long textHash(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        byte[] digest = sha256().digest(normalize(text).getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(digest).getLong();
+    }
+
+    public static String contentHash(Question q) {
+        MessageDigest digest = sha256();
+        for (String field : new String[]{q.getQuestionText(), q.getOptionA(), q.getOptionB(), q.getOptionC(),
+                q.getOptionD(), q.getCorrectAnswer(), q.getTopic(), q.getSubtopic(), q.getDifficulty(),
+                q.getExplanation()}) {
+            if (field != null) {
+                digest.update(field.getBytes(StandardCharsets.UTF_8));
+            }
+            // Separator keeps ("ab", "c") and ("a", "bc") apart; null and "" hash differently too
+            digest.update(field == null ? (byte) 0 : (byte) 1);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
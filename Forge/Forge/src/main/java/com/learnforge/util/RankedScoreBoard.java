@@ -0,0 +1,134 @@
+package com.learnforge.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-user scores kept in descending order.
+ *
+ * Reads walk a {@link ConcurrentSkipListSet} without locking; writes are
+ * serialized so the score map, the ordered set and the rank histogram never
+ * disagree. Ranks are competition ranks: tied scores share a rank.
+ */
+public class RankedScoreBoard {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong(Entry::score).reversed()
+            .thenComparing(Entry::userId);
+
+    private final Map<String, Long> scores = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private final ScoreHistogram histogram = new ScoreHistogram();
+
+    public record Entry(String userId, long score) {
+    }
+
+    public synchronized void set(String userId, long score) {
+        Long previous = scores.put(userId, score);
+        if (previous != null) {
+            ranking.remove(new Entry(userId, previous));
+            histogram.remove(previous);
+        }
+        ranking.add(new Entry(userId, score));
+        histogram.add(score);
+    }
+
+    /**
+     * Set the score only if it is higher than the current one, so late
+     * out-of-order updates of a monotonic total are ignored.
+     */
+    public synchronized void raise(String userId, long score) {
+        Long previous = scores.get(userId);
+        if (previous == null || previous < score) {
+            set(userId, score);
+        }
+    }
+
+    /**
+     * Add {@code delta} to a user's score, flooring it at zero. A user who
+     * reaches zero stays ranked at the bottom; only {@link #remove} takes
+     * them off the board.
+     */
+    public synchronized void add(String userId, long delta) {
+        set(userId, Math.max(0, scores.getOrDefault(userId, 0L) + delta));
+    }
+
+    public synchronized void remove(String userId) {
+        Long previous = scores.remove(userId);
+        if (previous != null) {
+            ranking.remove(new Entry(userId, previous));
+            histogram.remove(previous);
+        }
+    }
+
+    public synchronized void clear() {
+        scores.clear();
+        ranking.clear();
+        histogram.clear();
+    }
+
+    public OptionalLong score(String userId) {
+        Long score = scores.get(userId);
+        return score == null ? OptionalLong.empty() : OptionalLong.of(score);
+    }
+
+    /**
+     * 1-based rank of a user, or empty if the user has no score. O(log maxScore).
+     */
+    public synchronized OptionalInt rank(String userId) {
+        Long score = scores.get(userId);
+        return score == null ? OptionalInt.empty() : OptionalInt.of(rankOf(score));
+    }
+
+    /**
+     * Rank that a given score holds on this board.
+     */
+    public synchronized int rankOf(long score) {
+        return histogram.countAbove(score) + 1;
+    }
+
+    /**
+     * Up to {@code window} entries above the user, the user, then up to
+     * {@code window} entries below, in descending order.
+     */
+    public List<Entry> around(String userId, int window) {
+        Long score = scores.get(userId);
+        if (score == null) {
+            return new ArrayList<>();
+        }
+        Entry self = new Entry(userId, score);
+
+        LinkedList<Entry> result = new LinkedList<>();
+        Iterator<Entry> above = ranking.headSet(self, false).descendingIterator();
+        while (above.hasNext() && result.size() < window) {
+            result.addFirst(above.next());
+        }
+        Iterator<Entry> below = ranking.tailSet(self, true).iterator();
+        int limit = result.size() + window + 1;
+        while (below.hasNext() && result.size() < limit) {
+            result.addLast(below.next());
+        }
+        return new ArrayList<>(result);
+    }
+
+    public int size() {
+        return scores.size();
+    }
+
+    /**
+     * Iterate from the highest score down. Weakly consistent under concurrent writes.
+     */
+    public Iterator<Entry> descending() {
+        return ranking.iterator();
+    }
+
+    public List<Entry> top(int n) {
+        List<Entry> result = new ArrayList<>(Math.min(n, ranking.size()));
+        Iterator<Entry> it = ranking.iterator();
+        while (it.hasNext() && result.size() < n) {
+            result.add(it.next());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package com.learnforge.util;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A {@link RankedScoreBoard} over the last N calendar days.
+ *
+ * Scores are kept in one bucket per day. When a day falls out of the window
+ * its bucket is subtracted from the board, so reads never re-aggregate. A
+ * user stays on the board, even with a score of zero, until none of their
+ * days are left in the window.
+ */
+public class RollingScoreWindow {
+
+    private final int days;
+    private final RankedScoreBoard board = new RankedScoreBoard();
+    private final TreeMap<LocalDate, Map<String, Long>> buckets = new TreeMap<>();
+    private LocalDate expiredThrough = LocalDate.MIN;
+
+    public RollingScoreWindow(int days) {
+        this.days = days;
+    }
+
+    public synchronized void add(String userId, long score, LocalDate day) {
+        if (!day.isAfter(cutoff(LocalDate.now()))) {
+            return;
+        }
+        buckets.computeIfAbsent(day, d -> new HashMap<>()).merge(userId, score, Long::sum);
+        board.add(userId, score);
+    }
+
+    /**
+     * Drop every bucket that is no longer inside the window ending today.
+     */
+    public synchronized void expire(LocalDate today) {
+        LocalDate cutoff = cutoff(today);
+        if (!cutoff.isAfter(expiredThrough)) {
+            return;
+        }
+        while (!buckets.isEmpty() && !buckets.firstKey().isAfter(cutoff)) {
+            buckets.pollFirstEntry().getValue().forEach((userId, score) -> {
+                if (buckets.values().stream().anyMatch(bucket -> bucket.containsKey(userId))) {
+                    board.add(userId, -score);
+                } else {
+                    board.remove(userId);
+                }
+            });
+        }
+        expiredThrough = cutoff;
+    }
+
+    public synchronized void remove(String userId) {
+        buckets.values().forEach(bucket -> bucket.remove(userId));
+        board.remove(userId);
+    }
+
+    public synchronized void clear() {
+        buckets.clear();
+        board.clear();
+        expiredThrough = LocalDate.MIN;
+    }
+
+    public RankedScoreBoard board() {
+        expire(LocalDate.now());
+        return board;
+    }
+
+    private LocalDate cutoff(LocalDate today) {
+        return today.minusDays(days);
+    }
+}
@@ -0,0 +1,101 @@
+package com.learnforge.util;
+
+/**
+ * Fenwick tree counting how many users hold each score.
+ *
+ * Answers "how many users scored more than s" in O(log maxScore). The tree
+ * doubles in size when a score beyond its capacity is added. Not thread-safe;
+ * callers serialize access.
+ */
+public class ScoreHistogram {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int total;
+
+    public void add(long score) {
+        update(index(score), 1);
+        total++;
+    }
+
+    public void remove(long score) {
+        update(index(score), -1);
+        total--;
+    }
+
+    public void clear() {
+        tree = new int[INITIAL_CAPACITY + 1];
+        total = 0;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    /**
+     * Number of recorded scores strictly greater than {@code score}.
+     */
+    public int countAbove(long score) {
+        if (score < 0) {
+            return total;
+        }
+        int capacity = tree.length - 1;
+        if (score >= capacity) {
+            return 0;
+        }
+        return total - prefixSum((int) score + 1);
+    }
+
+    // Scores are shifted by one because Fenwick indices start at 1
+    private int index(long score) {
+        if (score < 0 || score >= Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Score out of range: " + score);
+        }
+        int i = (int) score + 1;
+        if (i >= tree.length) {
+            grow(i);
+        }
+        return i;
+    }
+
+    private void update(int i, int delta) {
+        for (; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int prefixSum(int i) {
+        int sum = 0;
+        for (; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Rebuild into a larger tree: recover point counts, then re-add them in O(capacity)
+    private void grow(int needed) {
+        int oldCapacity = tree.length - 1;
+        int newCapacity = oldCapacity;
+        while (newCapacity < needed) {
+            newCapacity = Math.multiplyExact(newCapacity, 2);
+        }
+
+        int[] counts = new int[oldCapacity + 1];
+        for (int i = 1; i <= oldCapacity; i++) {
+            counts[i] = prefixSum(i) - prefixSum(i - 1);
+        }
+
+        int[] grown = new int[newCapacity + 1];
+        for (int i = 1; i <= newCapacity; i++) {
+            if (i <= oldCapacity) {
+                grown[i] += counts[i];
+            }
+            int parent = i + (i & -i);
+            if (parent <= newCapacity) {
+                grown[parent] += grown[i];
+            }
+        }
+        tree = grown;
+    }
+}
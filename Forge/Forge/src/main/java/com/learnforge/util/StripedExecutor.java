@@ -0,0 +1,63 @@
+package com.learnforge.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of single-threaded lanes. Tasks with the same key always run on
+ * the same lane, in submission order, so per-key state needs no locking while
+ * unrelated keys run in parallel.
+ */
+public class StripedExecutor implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(StripedExecutor.class);
+
+    private final ExecutorService[] stripes;
+
+    public StripedExecutor(String name, int stripeCount) {
+        this.stripes = new ExecutorService[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = Executors.newSingleThreadExecutor(threadFactory(name + "-" + i));
+        }
+    }
+
+    public void execute(Object key, Runnable task) {
+        stripes[Math.floorMod(key.hashCode(), stripes.length)].execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                // Keep the lane alive for the other keys hashed onto it
+                log.error("Task for key {} failed: {}", key, e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+        for (ExecutorService stripe : stripes) {
+            try {
+                if (!stripe.awaitTermination(5, TimeUnit.SECONDS)) {
+                    stripe.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                stripe.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.learnforge.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bounded, sorted list of the best K items seen so far.
+ *
+ * Writers are serialized and publish an immutable snapshot, so readers get
+ * the current top K with a single volatile read.
+ */
+public class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private volatile List<T> snapshot = List.of();
+
+    public TopK(int k, Comparator<? super T> order) {
+        this.k = k;
+        this.order = order;
+    }
+
+    public synchronized void offer(T item) {
+        List<T> current = snapshot;
+        if (current.size() >= k && order.compare(item, current.get(current.size() - 1)) >= 0) {
+            return;
+        }
+
+        List<T> next = new ArrayList<>(current.size() + 1);
+        boolean inserted = false;
+        for (T existing : current) {
+            if (!inserted && order.compare(item, existing) < 0) {
+                next.add(item);
+                inserted = true;
+            }
+            next.add(existing);
+        }
+        if (!inserted) {
+            next.add(item);
+        }
+        if (next.size() > k) {
+            next.remove(next.size() - 1);
+        }
+        snapshot = List.copyOf(next);
+    }
+
+    public List<T> snapshot() {
+        return snapshot;
+    }
+}
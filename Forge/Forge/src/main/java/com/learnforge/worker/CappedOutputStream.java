@@ -0,0 +1,31 @@
+package com.learnforge.worker;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Collects output up to a byte limit and silently drops the rest, so a
+ * submission that prints forever cannot exhaust the worker's heap.
+ */
+public class CappedOutputStream extends ByteArrayOutputStream {
+
+    private final int limit;
+
+    public CappedOutputStream(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        if (count < limit) {
+            super.write(b);
+        }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        int room = limit - count;
+        if (room > 0) {
+            super.write(b, off, Math.min(len, room));
+        }
+    }
+}
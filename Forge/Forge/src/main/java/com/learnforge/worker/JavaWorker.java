@@ -0,0 +1,360 @@
+package com.learnforge.worker;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.net.StandardProtocolFamily;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+/**
+ * Long-lived JVM that compiles and runs Java submissions for the local executor.
+ *
+ * The pool launches it from a copy of this package's class files, so it must
+ * not use inner or anonymous classes (lambdas are fine). It talks to the pool
+ * over a Unix domain socket, not stdin/stdout: submissions run in this JVM and
+ * can write to fd 1 directly, but cannot reopen a socket the pool has already
+ * accepted and unlinked. Frames are length-prefixed:
+ *
+ *   request:  long nonce, source, stdin         (each int length + bytes)
+ *   response: long nonce, int status, int exitCode, long cpuMillis,
+ *             boolean recycle, stdout, stderr, compile output
+ *
+ * The nonce is the pool's, echoed back so a response is only accepted for the
+ * run that asked for it.
+ *
+ * Each submission is compiled by the in-process javac into its own directory
+ * and loaded through a fresh class loader, so the statics of its own classes
+ * start fresh every run. JDK-wide state is shared, though, so the worker
+ * snapshots system properties, the default locale and time zone, the default
+ * uncaught-exception handler and the set of live threads before a run, and
+ * recycles itself if any of them changed. Its main runs on a separate thread
+ * watched for CPU and wall time. A violation (time limit, OutOfMemoryError,
+ * leaked threads or global state, System.exit) is answered with recycle set,
+ * and the worker then exits so the pool starts a clean replacement.
+ */
+public class JavaWorker {
+
+    public static final int READY = 0x4A574B52;
+
+    // Judge0 status ids, plus EXITED for a submission that called System.exit
+    public static final int ACCEPTED = 3;
+    public static final int TIME_LIMIT_EXCEEDED = 5;
+    public static final int COMPILATION_ERROR = 6;
+    public static final int RUNTIME_ERROR = 11;
+    public static final int INTERNAL_ERROR = 13;
+    public static final int EXITED = -1;
+
+    private static final long STACK_SIZE = 8L << 20;
+    private static final byte[] EMPTY = new byte[0];
+    private static final int WARM_UP_ROUNDS = 16;
+    private static final String WARM_UP_SOURCE = "import java.util.*;\n"
+            + "public class Main {\n"
+            + "    public static void main(String[] args) {\n"
+            + "        Scanner in = new Scanner(System.in);\n"
+            + "        List<Integer> xs = new ArrayList<>();\n"
+            + "        while (in.hasNextInt()) xs.add(in.nextInt());\n"
+            + "        Collections.sort(xs);\n"
+            + "        System.out.println(xs);\n"
+            + "    }\n"
+            + "}\n";
+
+    private final long cpuLimitMillis;
+    private final long wallLimitMillis;
+    private final int outputLimit;
+    private final Path workDir;
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager fileManager;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final PrintStream originalErr = System.err;
+
+    private DataOutputStream protocolOut;
+    private int sequence;
+    private long nonce;
+
+    // State of the submission in flight, read by the shutdown hook if it calls System.exit
+    private boolean responded = true;
+    private CappedOutputStream currentOut;
+    private CappedOutputStream currentErr;
+    private PrintStream currentStdout;
+
+    public JavaWorker(long cpuLimitMillis, long wallLimitMillis, int outputLimit, Path workDir) {
+        this.cpuLimitMillis = cpuLimitMillis;
+        this.wallLimitMillis = wallLimitMillis;
+        this.outputLimit = outputLimit;
+        this.workDir = workDir;
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No system Java compiler; the worker needs a JDK");
+        }
+        this.fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Args: cpu limit ms, wall limit ms, output limit bytes, work directory, control socket path.
+     */
+    public static void main(String[] args) throws Exception {
+        SocketChannel control = SocketChannel.open(StandardProtocolFamily.UNIX);
+        control.connect(UnixDomainSocketAddress.of(args[4]));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(control)));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(control)));
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        JavaWorker worker = new JavaWorker(Long.parseLong(args[0]), Long.parseLong(args[1]),
+                Integer.parseInt(args[2]), Paths.get(args[3]));
+        worker.warmUp();
+        worker.protocolOut = out;
+        Runtime.getRuntime().addShutdownHook(new Thread(worker::onExit, "worker-exit"));
+        out.writeInt(READY);
+        out.flush();
+
+        while (true) {
+            long nonce;
+            try {
+                nonce = in.readLong();
+            } catch (EOFException e) {
+                return;
+            }
+            byte[] source = readFrame(in);
+            worker.handle(nonce, source, readFrame(in));
+        }
+    }
+
+    // Loads javac and the common JDK classes, and gives the JIT something to work on
+    private void warmUp() throws IOException {
+        protocolOut = new DataOutputStream(OutputStream.nullOutputStream());
+        byte[] source = WARM_UP_SOURCE.getBytes(StandardCharsets.UTF_8);
+        byte[] stdin = "3 1 2".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            handle(0, source, stdin);
+        }
+    }
+
+    private void handle(long nonce, byte[] source, byte[] stdin) throws IOException {
+        Path dir = workDir.resolve("run-" + (++sequence));
+        Files.createDirectories(dir);
+        synchronized (this) {
+            this.nonce = nonce;
+            responded = false;
+        }
+        try {
+            String diagnostics = compile(source, dir);
+            if (diagnostics != null) {
+                byte[] bytes = diagnostics.getBytes(StandardCharsets.UTF_8);
+                respond(COMPILATION_ERROR, 0, 0, false, EMPTY, EMPTY, Arrays.copyOf(bytes, Math.min(bytes.length, outputLimit)));
+            } else {
+                execute(dir, stdin);
+            }
+        } catch (Exception e) {
+            respond(INTERNAL_ERROR, 0, 0, true, EMPTY, String.valueOf(e).getBytes(StandardCharsets.UTF_8), EMPTY);
+            exit();
+        } finally {
+            deleteQuietly(dir);
+        }
+    }
+
+    private String compile(byte[] source, Path dir) throws IOException {
+        Path file = dir.resolve("Main.java");
+        Files.write(file, source);
+        StringWriter diagnostics = new StringWriter();
+        List<String> options = List.of("-d", dir.toString(), "-proc:none", "-nowarn", "-encoding", "UTF-8");
+        boolean compiled = compiler.getTask(diagnostics, fileManager, null, options, null,
+                fileManager.getJavaFileObjects(file.toFile())).call();
+        return compiled ? null : diagnostics.toString();
+    }
+
+    private void execute(Path dir, byte[] stdin) throws Exception {
+        CappedOutputStream out = new CappedOutputStream(outputLimit);
+        CappedOutputStream err = new CappedOutputStream(outputLimit);
+        PrintStream stdout = new PrintStream(out, false, StandardCharsets.UTF_8);
+        PrintStream stderr = new PrintStream(err, true, StandardCharsets.UTF_8);
+        Throwable[] failure = new Throwable[1];
+        long[] cpuNanos = new long[1];
+
+        // The platform loader as parent: submissions see the JDK, not the worker
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, ClassLoader.getPlatformClassLoader())) {
+            Thread main = new Thread(null, () -> {
+                try {
+                    Class.forName("Main", true, loader)
+                            .getMethod("main", String[].class)
+                            .invoke(null, (Object) new String[0]);
+                } catch (InvocationTargetException e) {
+                    failure[0] = e.getCause();
+                } catch (Throwable e) {
+                    failure[0] = e;
+                } finally {
+                    cpuNanos[0] = threads.getCurrentThreadCpuTime();
+                }
+            }, "main", STACK_SIZE);
+            main.setContextClassLoader(loader);
+
+            synchronized (this) {
+                currentOut = out;
+                currentErr = err;
+                currentStdout = stdout;
+            }
+            Locale locale = Locale.getDefault();
+            TimeZone timeZone = TimeZone.getDefault();
+            Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+            // After the reads above: the first TimeZone lookup sets user.timezone
+            Properties properties = (Properties) System.getProperties().clone();
+            Set<Thread> threadsBefore = liveThreads();
+
+            System.setIn(new ByteArrayInputStream(stdin));
+            System.setOut(stdout);
+            System.setErr(stderr);
+            long start = System.nanoTime();
+            main.start();
+
+            boolean timedOut = false;
+            // join returns as soon as the thread ends; the timeout only paces the limit checks
+            while (main.isAlive()) {
+                main.join(20);
+                long cpu = threads.getThreadCpuTime(main.getId());
+                if (cpu > 0) {
+                    cpuNanos[0] = cpu;
+                }
+                if (main.isAlive() && (cpuNanos[0] / 1_000_000 > cpuLimitMillis
+                        || (System.nanoTime() - start) / 1_000_000 > wallLimitMillis)) {
+                    timedOut = true;
+                    break;
+                }
+            }
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            System.setErr(originalErr);
+            stdout.flush();
+            long cpuMillis = cpuNanos[0] / 1_000_000;
+
+            if (timedOut) {
+                respond(TIME_LIMIT_EXCEEDED, 0, cpuMillis, true, out.toByteArray(), err.toByteArray(), EMPTY);
+                exit();
+            }
+            Throwable thrown = failure[0];
+            if (thrown != null) {
+                stderr.print("Exception in thread \"main\" ");
+                thrown.printStackTrace(stderr);
+            }
+            // Threads it left behind (in any group), JDK-wide settings it changed, or a heap it
+            // blew would all be visible to the next run
+            boolean leakedThreads = !threadsBefore.containsAll(liveThreads());
+            boolean changedGlobals = !System.getProperties().equals(properties)
+                    || !Locale.getDefault().equals(locale)
+                    || !TimeZone.getDefault().equals(timeZone)
+                    || Thread.getDefaultUncaughtExceptionHandler() != handler;
+            boolean recycle = leakedThreads || changedGlobals || thrown instanceof OutOfMemoryError;
+            respond(thrown == null ? ACCEPTED : RUNTIME_ERROR, thrown == null ? 0 : 1, cpuMillis, recycle,
+                    out.toByteArray(), err.toByteArray(), EMPTY);
+            if (recycle) {
+                exit();
+            }
+        } finally {
+            synchronized (this) {
+                currentOut = null;
+                currentErr = null;
+                currentStdout = null;
+            }
+        }
+    }
+
+    // Shutdown hook: a submission called System.exit before we answered
+    private void onExit() {
+        try {
+            CappedOutputStream out;
+            CappedOutputStream err;
+            synchronized (this) {
+                if (responded || currentOut == null) {
+                    return;
+                }
+                currentStdout.flush();
+                out = currentOut;
+                err = currentErr;
+            }
+            respond(EXITED, 0, 0, true, out.toByteArray(), err.toByteArray(), EMPTY);
+        } catch (IOException e) {
+            // The pool reads the exit code instead
+        }
+    }
+
+    private synchronized void respond(int status, int exitCode, long cpuMillis, boolean recycle,
+                                      byte[] stdout, byte[] stderr, byte[] compileOutput) throws IOException {
+        if (responded) {
+            return;
+        }
+        responded = true;
+        protocolOut.writeLong(nonce);
+        protocolOut.writeInt(status);
+        protocolOut.writeInt(exitCode);
+        protocolOut.writeLong(cpuMillis);
+        protocolOut.writeBoolean(recycle);
+        writeFrame(protocolOut, stdout);
+        writeFrame(protocolOut, stderr);
+        writeFrame(protocolOut, compileOutput);
+        protocolOut.flush();
+    }
+
+    private static Set<Thread> liveThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] all = new Thread[root.activeCount() + 8];
+        int count;
+        while ((count = root.enumerate(all, true)) == all.length) {
+            all = new Thread[all.length * 2];
+        }
+        return new HashSet<>(Arrays.asList(all).subList(0, count));
+    }
+
+    // Leave without shutdown hooks; the pool has its answer and replaces this worker
+    private static void exit() {
+        Runtime.getRuntime().halt(0);
+    }
+
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeFrame(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            // Left for the pool, which removes the whole work directory on recycle
+        }
+    }
+}
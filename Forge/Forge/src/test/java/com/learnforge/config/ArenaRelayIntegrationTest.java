@@ -0,0 +1,209 @@
+package com.learnforge.config;
+
+import com.learnforge.ForgeApplication;
+import com.learnforge.model.ArenaMessage;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two backend nodes sharing one database for rooms ({@code arena.rooms.store=jdbc})
+ * and one embedded STOMP broker ({@code arena.broker.mode=relay}), with a player
+ * connected to each.
+ */
+class ArenaRelayIntegrationTest {
+
+    private static final String ROOM = "relay-room";
+
+    private static EmbeddedActiveMQ broker;
+    private static ConfigurableApplicationContext node1;
+    private static ConfigurableApplicationContext node2;
+    private static WebSocketStompClient client;
+
+    @BeforeAll
+    static void start() throws Exception {
+        int stompPort = freePort();
+        Configuration config = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://127.0.0.1:" + stompPort + "?protocols=STOMP");
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(config);
+        broker.start();
+
+        node1 = node(stompPort);
+        node2 = node(stompPort);
+
+        client = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        ThreadPoolTaskScheduler receipts = new ThreadPoolTaskScheduler();
+        receipts.initialize();
+        client.setTaskScheduler(receipts);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        if (node2 != null) {
+            node2.close();
+        }
+        if (node1 != null) {
+            node1.close();
+        }
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @Test
+    void playersOnDifferentNodesShareTheRoomAndALostRoundTimerIsRecovered() throws Exception {
+        Player alice = new Player("alice", node1);
+        Player bob = new Player("bob", node2);
+
+        alice.send("/app/arena/join", message("alice"));
+        assertThat(bob.next("JOINED").getUserId()).isEqualTo("alice");
+
+        bob.send("/app/arena/join", message("bob"));
+        assertThat(alice.next("JOINED").getUserId()).isEqualTo("alice");
+        assertThat(alice.next("JOINED").getUserId()).isEqualTo("bob");
+        // Node 2 loaded the room node 1 created
+        assertThat(bob.nextSync().getPlayers()).containsExactlyInAnyOrder("alice", "bob");
+
+        ArenaMessage start = message("alice");
+        start.setTopic("Operating Systems");
+        start.setDifficulty("medium");
+        start.setRounds(1);
+        alice.send("/app/arena/start", start);
+        assertThat(bob.next("QUESTION").getRound()).isEqualTo(1);
+
+        // Node 1 dies holding the only timer for this round; node 2's sweep has to close it.
+        // Its timers go first, as in a crash, rather than firing into the shutdown
+        node1.getBean("arenaScheduler", ScheduledExecutorService.class).shutdownNow();
+        node1.close();
+        node1 = null;
+
+        assertThat(bob.next("ROUND_RESULT").getCorrectAnswer()).isNotBlank();
+        assertThat(bob.next("GAME_OVER").getScores()).containsKey("bob");
+    }
+
+    private static ArenaMessage message(String userId) {
+        ArenaMessage msg = new ArenaMessage();
+        msg.setRoomId(ROOM);
+        msg.setUserId(userId);
+        return msg;
+    }
+
+    private static ConfigurableApplicationContext node(int stompPort) {
+        // As command-line arguments, which outrank application.yml
+        return new SpringApplicationBuilder(ForgeApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:arena-relay;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.learnforge=INFO",
+                "--logging.level.org.springframework.security=INFO",
+                "--arena.broker.mode=relay",
+                "--arena.broker.relay.port=" + stompPort,
+                "--arena.rooms.store=jdbc",
+                "--arena.round.seconds=1",
+                "--arena.round.intermission-ms=200",
+                "--arena.rooms.sweep-ms=200",
+                "--arena.rooms.recovery-grace-ms=500"
+        );
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /** A browser connected to one node, subscribed to the room and to its own sync topic. */
+    private static final class Player {
+        private final StompSession session;
+        private final BlockingQueue<ArenaMessage> room = new LinkedBlockingQueue<>();
+        private final BlockingQueue<ArenaMessage> sync = new LinkedBlockingQueue<>();
+
+        Player(String userId, ConfigurableApplicationContext node) throws Exception {
+            int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+            session = client.connectAsync("http://localhost:" + port + "/api/ws/arena", new StompSessionHandlerAdapter() {})
+                    .get(10, TimeUnit.SECONDS);
+            session.setAutoReceipt(true);
+            subscribe("/topic/arena/" + ROOM, room);
+            subscribe("/topic/arena/" + ROOM + "/sync/" + userId, sync);
+        }
+
+        // Waits for the broker's receipt, so nothing sent afterwards can miss this subscriber
+        private void subscribe(String destination, BlockingQueue<ArenaMessage> queue) throws Exception {
+            CompletableFuture<Void> receipt = new CompletableFuture<>();
+            session.subscribe(destination, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return ArenaMessage.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    ArenaMessage msg = (ArenaMessage) payload;
+                    if (msg.getEvents() != null) {
+                        queue.addAll(msg.getEvents());
+                    } else {
+                        queue.add(msg);
+                    }
+                }
+            }).addReceiptTask(() -> receipt.complete(null));
+            receipt.get(10, TimeUnit.SECONDS);
+        }
+
+        void send(String destination, ArenaMessage msg) {
+            session.send(destination, msg);
+        }
+
+        // The next room event with this action, skipping others
+        ArenaMessage next(String action) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 15_000;
+            for (long left; (left = deadline - System.currentTimeMillis()) > 0; ) {
+                ArenaMessage msg = room.poll(left, TimeUnit.MILLISECONDS);
+                if (msg != null && action.equals(msg.getAction())) {
+                    return msg;
+                }
+            }
+            throw new AssertionError("No " + action + " within 15 s");
+        }
+
+        ArenaMessage nextSync() throws InterruptedException {
+            ArenaMessage msg = sync.poll(15, TimeUnit.SECONDS);
+            assertThat(msg).as("PLAYER_LIST for this player").isNotNull();
+            return msg;
+        }
+    }
+}
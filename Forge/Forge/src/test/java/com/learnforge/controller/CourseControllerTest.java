@@ -0,0 +1,51 @@
+package com.learnforge.controller;
+
+import com.learnforge.service.CourseCatalogCache;
+import com.learnforge.service.CourseService;
+import com.learnforge.util.PageCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseControllerTest {
+
+    private static final String ETAG = "\"abc\"";
+
+    private final CourseCatalogCache catalogCache = mock(CourseCatalogCache.class);
+    private final CourseController controller = new CourseController(mock(CourseService.class), catalogCache);
+
+    CourseControllerTest() {
+        byte[][] items = {"{\"id\":1}".getBytes(StandardCharsets.UTF_8), "{\"id\":2}".getBytes(StandardCharsets.UTF_8)};
+        when(catalogCache.get()).thenReturn(new CourseCatalogCache.Snapshot(1, new long[]{1, 2}, items, ETAG));
+    }
+
+    @Test
+    void matchingETagGetsNotModifiedWithoutABody() {
+        ResponseEntity<byte[]> response = controller.getAllCourses("W/" + ETAG, null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void staleETagGetsThePageAndTheCurrentTag() {
+        ResponseEntity<byte[]> response = controller.getAllCourses("\"old\"", null, 1);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("[{\"id\":1}]");
+        String next = response.getHeaders().getFirst(PageCursor.HEADER);
+        assertThat(PageCursor.decode(next)).isEqualTo(1);
+
+        ResponseEntity<byte[]> last = controller.getAllCourses(null, next, 1);
+        assertThat(new String(last.getBody(), StandardCharsets.UTF_8)).isEqualTo("[{\"id\":2}]");
+        assertThat(last.getHeaders().containsKey(PageCursor.HEADER)).isFalse();
+    }
+}
@@ -0,0 +1,144 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaMessage;
+import com.learnforge.model.ArenaRoom;
+import com.learnforge.model.ArenaRoomState;
+import com.learnforge.util.StripedExecutor;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArenaRoomUpdaterTest {
+
+    private static final String ROOM = "r1";
+    private static final String TOPIC = "/topic/arena/" + ROOM;
+
+    private final SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+    private final ArenaRoomStore store = mock(ArenaRoomStore.class);
+    // flush-ms 0: coalesced events go out directly, so the executor and scheduler are never used
+    private final ArenaBroadcaster broadcaster = new ArenaBroadcaster(template,
+            mock(StripedExecutor.class), mock(ScheduledExecutorService.class), 0);
+    private final ArenaRoomUpdater updater = new ArenaRoomUpdater(store, broadcaster);
+
+    @Test
+    void messagesGoOutOnlyAfterTheSave() {
+        when(store.getOrCreate(ROOM)).thenAnswer(inv -> new ArenaRoom(ROOM));
+
+        updater.update(ROOM, "alice", true, room -> {
+            room.addPlayer("alice");
+            broadcaster.send(ROOM, message("JOINED", "alice"));
+            broadcaster.sendPlayerList(room, "alice");
+            return true;
+        });
+
+        InOrder order = inOrder(store, template);
+        order.verify(store).save(any());
+        order.verify(template).convertAndSend(eq(TOPIC), any(Object.class));
+        order.verify(template).convertAndSend(eq(TOPIC + "/sync/alice"), any(Object.class));
+    }
+
+    @Test
+    void conflictingSaveIsRetriedOnAFreshCopyAndItsMessagesDropped() {
+        when(store.get(ROOM)).thenAnswer(inv -> room("alice"));
+        doThrow(new ObjectOptimisticLockingFailureException(ArenaRoomState.class, ROOM))
+                .doNothing().when(store).save(any());
+        AtomicInteger attempts = new AtomicInteger();
+
+        updater.update(ROOM, "alice", false, room -> {
+            ArenaMessage msg = message("ANSWERED", "alice");
+            msg.setRound(attempts.incrementAndGet());
+            broadcaster.coalesce(ROOM, msg);
+            return true;
+        });
+
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(template).convertAndSend(eq(TOPIC), sent.capture());
+        assertThat(((ArenaMessage) sent.getValue()).getRound()).isEqualTo(2);
+        verify(store, times(2)).save(any());
+    }
+
+    @Test
+    void repeatedConflictsEndInAPlayerListForTheSender() {
+        when(store.get(ROOM)).thenAnswer(inv -> room("alice", "bob"));
+        doThrow(new ObjectOptimisticLockingFailureException(ArenaRoomState.class, ROOM)).when(store).save(any());
+
+        updater.update(ROOM, "alice", false, room -> {
+            broadcaster.send(ROOM, message("GAME_STARTED", "alice"));
+            return true;
+        });
+
+        verify(store, times(ArenaRoomUpdater.MAX_ATTEMPTS)).save(any());
+        verify(template, never()).convertAndSend(eq(TOPIC), any(Object.class));
+        ArgumentCaptor<Object> sync = ArgumentCaptor.forClass(Object.class);
+        verify(template).convertAndSend(eq(TOPIC + "/sync/alice"), sync.capture());
+        ArenaMessage list = (ArenaMessage) sync.getValue();
+        assertThat(list.getAction()).isEqualTo("PLAYER_LIST");
+        assertThat(list.getPlayers()).containsExactlyInAnyOrder("alice", "bob");
+    }
+
+    @Test
+    void roomLeftEmptyIsRemovedInsteadOfSaved() {
+        ArenaRoom stored = room("alice");
+        when(store.get(ROOM)).thenReturn(stored);
+        doNothing().when(store).remove(any());
+
+        updater.update(ROOM, null, false, room -> {
+            room.removePlayer("alice");
+            broadcaster.send(ROOM, message("LEFT", "alice"));
+            return true;
+        });
+
+        InOrder order = inOrder(store, template);
+        order.verify(store).remove(stored);
+        order.verify(template).convertAndSend(eq(TOPIC), any(Object.class));
+        verify(store, never()).save(any());
+    }
+
+    @Test
+    void unchangedRoomStillSendsButIsNotSaved() {
+        when(store.get(ROOM)).thenAnswer(inv -> room("alice"));
+
+        updater.update(ROOM, "alice", false, room -> {
+            broadcaster.sendPlayerList(room, "alice");
+            return false;
+        });
+
+        verify(store, never()).save(any());
+        verify(template).convertAndSend(eq(TOPIC + "/sync/alice"), any(Object.class));
+        verify(template, never()).convertAndSend(eq(TOPIC), any(Object.class));
+        verify(template, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    private static ArenaRoom room(String... players) {
+        ArenaRoom room = new ArenaRoom(ROOM);
+        List.of(players).forEach(room::addPlayer);
+        return room;
+    }
+
+    private static ArenaMessage message(String action, String userId) {
+        ArenaMessage msg = new ArenaMessage();
+        msg.setRoomId(ROOM);
+        msg.setUserId(userId);
+        msg.setAction(action);
+        return msg;
+    }
+}
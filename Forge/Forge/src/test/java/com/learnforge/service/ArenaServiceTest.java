@@ -0,0 +1,85 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.LeaderboardEntryDto;
+import com.learnforge.entity.User;
+import com.learnforge.entity.UserProgress;
+import com.learnforge.repository.ArenaResultRepository;
+import com.learnforge.repository.UserProgressRepository;
+import com.learnforge.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArenaServiceTest {
+
+    private static final Map<String, Integer> XP = Map.of(
+            "alice", 100, "ghost", 90, "bob", 80, "carol", 80, "dave", 50, "orphan", 70);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserProgressRepository progressRepository = mock(UserProgressRepository.class);
+    private final ArenaLeaderboard leaderboard = new ArenaLeaderboard(progressRepository,
+            mock(ArenaResultRepository.class), userRepository);
+    private final ArenaService service = new ArenaService();
+
+    // "orphan" never had an account; "ghost" had one at startup and is deleted afterwards
+    private Set<String> accounts = Set.of("alice", "ghost", "bob", "carol", "dave");
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(progressRepository.findAll()).thenReturn(XP.entrySet().stream().map(e -> {
+            UserProgress p = new UserProgress();
+            p.setUserId(e.getKey());
+            p.setXpPoints(e.getValue());
+            return p;
+        }).toList());
+        when(userRepository.findAllUserIds()).thenAnswer(inv -> List.copyOf(accounts));
+        when(userRepository.findAllById(any())).thenAnswer(inv -> ((Collection<String>) inv.getArgument(0)).stream()
+                .filter(accounts::contains)
+                .map(id -> {
+                    User u = new User(id, id + "@example.com", "local", id, null);
+                    u.setUserId(id);
+                    return u;
+                })
+                .toList());
+        leaderboard.rebuild();
+        accounts = Set.of("alice", "bob", "carol", "dave");
+
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "arenaLeaderboard", leaderboard);
+    }
+
+    @Test
+    void everyEndpointGivesTiesTheSameRankAndSkipsUsersWithoutAnAccount() {
+        assertThat(ranks(service.getLeaderboard("all-time")))
+                .isEqualTo(Map.of("alice", 1, "bob", 2, "carol", 2, "dave", 4));
+
+        for (String user : List.of("alice", "bob", "carol", "dave")) {
+            assertThat(service.getUserRank(user, "all-time").orElseThrow().getRank())
+                    .isEqualTo(ranks(service.getLeaderboard("all-time")).get(user));
+        }
+        assertThat(ranks(service.getLeaderboardAround("carol", "all-time", 5)))
+                .isEqualTo(Map.of("alice", 1, "bob", 2, "carol", 2, "dave", 4));
+    }
+
+    @Test
+    void deletedUserIsDroppedEvenWhenOnlyTheRankIsAskedFor() {
+        assertThat(service.getUserRank("ghost", "all-time")).isEmpty();
+        assertThat(service.getUserRank("bob", "all-time").orElseThrow().getRank()).isEqualTo(2);
+    }
+
+    private static Map<String, Integer> ranks(List<LeaderboardEntryDto> entries) {
+        return entries.stream().collect(Collectors.toMap(LeaderboardEntryDto::getName, LeaderboardEntryDto::getRank));
+    }
+}
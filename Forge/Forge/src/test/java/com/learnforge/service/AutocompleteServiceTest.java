@@ -0,0 +1,45 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.Suggestion;
+import com.learnforge.repository.CourseRepository;
+import com.learnforge.repository.LessonRepository;
+import com.learnforge.repository.QuestionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AutocompleteServiceTest {
+
+    private final QuestionRepository questionRepository = mock(QuestionRepository.class);
+    private final AutocompleteService service = new AutocompleteService(mock(CourseRepository.class),
+            mock(LessonRepository.class), questionRepository, mock(ExecutorService.class));
+
+    @Test
+    void subtopicSharedByTopicsIsSuggestedOnce() {
+        when(questionRepository.countByTopicAndSubtopic()).thenReturn(List.of(
+                new Object[]{"DSA", "Arrays", 30L},
+                new Object[]{"Java", "Arrays", 10L},
+                new Object[]{"Java", "Streams", 5L}));
+
+        service.rebuild();
+
+        assertThat(service.suggest("arr", 10)).containsExactly(new Suggestion("Arrays", "subtopic", null, null));
+        assertThat(service.suggest("j", 10)).containsExactly(new Suggestion("Java", "topic", null, null));
+    }
+
+    @Test
+    void suggestionsAreReachableFromAnyWordStart() {
+        when(questionRepository.countByTopicAndSubtopic()).thenReturn(List.<Object[]>of(
+                new Object[]{"Data Structures", null, 3L}));
+
+        service.rebuild();
+
+        assertThat(service.suggest("struct", 10)).extracting(Suggestion::getText).containsExactly("Data Structures");
+        assertThat(service.suggest("ructures", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package com.learnforge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnforge.entity.Course;
+import com.learnforge.repository.CourseRepository;
+import com.learnforge.repository.LessonRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseCatalogCacheTest {
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final CourseCatalogCache cache = new CourseCatalogCache(courseRepository, lessonRepository,
+            new ObjectMapper().findAndRegisterModules());
+    private final List<Course> courses = new ArrayList<>(List.of(course(1, "Java"), course(2, "DSA"), course(3, "SQL")));
+
+    CourseCatalogCacheTest() {
+        when(courseRepository.findAll(any(Sort.class))).thenAnswer(inv -> List.copyOf(courses));
+        when(lessonRepository.countGroupedByCourseId()).thenReturn(List.<Object[]>of(new Object[]{2L, 4L}));
+    }
+
+    @Test
+    void pageStopsAtTheLimitAndNamesTheLastId() {
+        CourseCatalogCache.Snapshot catalog = cache.get();
+
+        CourseCatalogCache.Page first = catalog.page(0, 2);
+        assertThat(json(first)).contains("\"courseTitle\":\"Java\"", "\"courseTitle\":\"DSA\"", "\"lessonCount\":4")
+                .doesNotContain("SQL");
+        assertThat(first.lastId()).isEqualTo(2);
+
+        CourseCatalogCache.Page rest = catalog.page(first.lastId(), 2);
+        assertThat(json(rest)).contains("SQL").doesNotContain("Java");
+        assertThat(rest.lastId()).isNull();
+
+        assertThat(json(catalog.page(3, 2))).isEqualTo("[]");
+    }
+
+    @Test
+    void snapshotIsBuiltOnceUntilInvalidated() {
+        CourseCatalogCache.Snapshot first = cache.get();
+        assertThat(cache.get()).isSameAs(first);
+        verify(courseRepository, times(1)).findAll(any(Sort.class));
+
+        // Nothing changed, so the rebuilt snapshot keeps the tag
+        cache.invalidate();
+        CourseCatalogCache.Snapshot unchanged = cache.get();
+        assertThat(unchanged).isNotSameAs(first);
+        assertThat(unchanged.etag()).isEqualTo(first.etag());
+
+        courses.get(0).setCourseTitle("Java 21");
+        cache.onCatalogChanged(new CatalogChangedEvent("course"));
+        assertThat(cache.get().etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void ifNoneMatchAcceptsListsWeakTagsAndWildcards() {
+        CourseCatalogCache.Snapshot catalog = cache.get();
+        String etag = catalog.etag();
+
+        assertThat(catalog.matches(etag)).isTrue();
+        assertThat(catalog.matches("\"other\", W/" + etag)).isTrue();
+        assertThat(catalog.matches("*")).isTrue();
+        assertThat(catalog.matches("\"other\"")).isFalse();
+        assertThat(catalog.matches(null)).isFalse();
+    }
+
+    private static Course course(long id, String title) {
+        Course course = new Course();
+        course.setCourseId(id);
+        course.setCourseTitle(title);
+        return course;
+    }
+
+    private static String json(CourseCatalogCache.Page page) {
+        return new String(page.json(), StandardCharsets.UTF_8);
+    }
+}
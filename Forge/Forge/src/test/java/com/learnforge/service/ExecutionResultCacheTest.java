@@ -0,0 +1,126 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.ExecuteRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionResultCacheTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void identicalRequestsInFlightShareOneRun() throws Exception {
+        ExecutionResultCache cache = new ExecutionResultCache(10, 600);
+        CompletableFuture<Map<String, Object>> upstream = new CompletableFuture<>();
+        Function<ExecuteRequest, CompletableFuture<Map<String, Object>>> execute = r -> {
+            runs.incrementAndGet();
+            return upstream;
+        };
+
+        CompletableFuture<Map<String, Object>> first = cache.getOrExecute(request("print(1)"), execute);
+        CompletableFuture<Map<String, Object>> second = cache.getOrExecute(request("print(1)"), execute);
+        assertThat(first).isNotDone();
+        assertThat(cache.stats()).containsEntry("inFlight", 1).containsEntry("sharedInFlight", 1L);
+
+        upstream.complete(result(3));
+
+        assertThat(first.get()).isEqualTo(second.get());
+        assertThat(cache.getOrExecute(request("print(1)"), execute).get()).isEqualTo(result(3));
+        assertThat(runs).hasValue(1);
+        assertThat(cache.stats()).containsEntry("inFlight", 0).containsEntry("hits", 1L);
+    }
+
+    @Test
+    void languageIsCaseInsensitiveButStdinIsPartOfTheKey() {
+        ExecutionResultCache cache = new ExecutionResultCache(10, 600);
+
+        cache.getOrExecute(request("Python", "print(1)", ""), this::accepted);
+        cache.getOrExecute(request(" python ", "print(1)", ""), this::accepted);
+        cache.getOrExecute(request("python", "print(1)", "x"), this::accepted);
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws Exception {
+        ExecutionResultCache cache = new ExecutionResultCache(10, 0);
+
+        cache.getOrExecute(request("print(1)"), this::accepted);
+        Thread.sleep(5);
+        cache.getOrExecute(request("print(1)"), this::accepted);
+
+        assertThat(runs).hasValue(2);
+        assertThat(cache.stats()).containsEntry("expirations", 1L);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ExecutionResultCache cache = new ExecutionResultCache(2, 600);
+
+        cache.getOrExecute(request("a"), this::accepted);
+        cache.getOrExecute(request("b"), this::accepted);
+        cache.getOrExecute(request("a"), this::accepted);
+        cache.getOrExecute(request("c"), this::accepted);
+        assertThat(runs).hasValue(3);
+
+        cache.getOrExecute(request("a"), this::accepted);
+        assertThat(runs).hasValue(3);
+        cache.getOrExecute(request("b"), this::accepted);
+        assertThat(runs).hasValue(4);
+        assertThat(cache.stats()).containsEntry("size", 2).containsEntry("evictions", 2L);
+    }
+
+    @Test
+    void timeLimitsInternalErrorsAndFailuresAreNotCached() {
+        ExecutionResultCache cache = new ExecutionResultCache(10, 600);
+
+        for (int status : new int[] {5, 13}) {
+            cache.getOrExecute(request("status " + status), r -> completed(result(status)));
+            cache.getOrExecute(request("status " + status), r -> completed(result(status)));
+        }
+        Map<String, Object> error = new HashMap<>(result(3));
+        error.put("error", "upstream unavailable");
+        cache.getOrExecute(request("error"), r -> completed(error));
+        cache.getOrExecute(request("error"), r -> completed(error));
+        cache.getOrExecute(request("failed"), r -> {
+            runs.incrementAndGet();
+            return CompletableFuture.failedFuture(new RuntimeException("boom"));
+        });
+        cache.getOrExecute(request("failed"), this::accepted);
+
+        assertThat(runs).hasValue(8);
+        assertThat(cache.stats()).containsEntry("size", 1).containsEntry("inFlight", 0);
+    }
+
+    private CompletableFuture<Map<String, Object>> accepted(ExecuteRequest request) {
+        return completed(result(3));
+    }
+
+    private CompletableFuture<Map<String, Object>> completed(Map<String, Object> result) {
+        runs.incrementAndGet();
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private static Map<String, Object> result(int status) {
+        return Map.of("status", Map.of("id", status), "stdout", "1\n");
+    }
+
+    private static ExecuteRequest request(String code) {
+        return request("python", code, "");
+    }
+
+    private static ExecuteRequest request(String language, String code, String input) {
+        ExecuteRequest request = new ExecuteRequest();
+        request.setLanguage(language);
+        request.setCode(code);
+        request.setInput(input);
+        return request;
+    }
+}
@@ -0,0 +1,91 @@
+package com.learnforge.service;
+
+import com.learnforge.worker.JavaWorker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.ToolProvider;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Starts real worker JVMs from this JDK, one at a time so every recycle shows up as a new worker.
+// The sandbox is left unisolated because the build's JDK may live where sandbox uids can't read it.
+class JavaWorkerPoolTest {
+
+    private static final String HELLO = "public class Main { public static void main(String[] a) { System.out.println(\"hello\"); } }";
+
+    private ProcessSandbox sandbox;
+    private JavaWorkerPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assumeTrue(ToolProvider.getSystemJavaCompiler() != null, "no JDK compiler");
+        String javaHome = System.getProperty("java.home");
+        sandbox = new ProcessSandbox(1, 61000, 64, List.of(),
+                List.of(Path.of(System.getProperty("java.io.tmpdir")), Path.of(javaHome)), "none", true, false);
+        pool = new JavaWorkerPool(1, 128, 500, 1_000, 2_000, 65536, javaHome, sandbox);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (sandbox != null) {
+            sandbox.close();
+        }
+    }
+
+    @Test
+    void workerIsReusedUntilASubmissionLeavesItUnfitAndIsThenReplaced() throws Exception {
+        assertAccepted(pool.run(HELLO, ""));
+        assertAccepted(pool.run(HELLO, ""));
+        assertThat(pool.stats()).containsEntry("started", 1L).containsEntry("recycled", 0L);
+
+        JavaWorkerPool.Run loop = pool.run(
+                "public class Main { public static void main(String[] a) { while (true) { } } }", "");
+        assertThat(loop.statusId()).isEqualTo(JavaWorker.TIME_LIMIT_EXCEEDED);
+        assertAccepted(pool.run(HELLO, ""));
+        assertThat(pool.stats()).containsEntry("started", 2L).containsEntry("recycled", 1L);
+
+        JavaWorkerPool.Run exit = pool.run(
+                "public class Main { public static void main(String[] a) { System.out.println(\"bye\"); System.exit(3); } }", "");
+        assertThat(exit.statusId()).isEqualTo(JavaWorker.RUNTIME_ERROR);
+        assertThat(exit.exitCode()).isEqualTo(3);
+        assertThat(exit.stdout()).isEqualTo("bye\n");
+        assertAccepted(pool.run(HELLO, ""));
+        assertThat(pool.stats()).containsEntry("started", 3L).containsEntry("recycled", 2L);
+
+        JavaWorkerPool.Run leak = pool.run("public class Main { public static void main(String[] a) {"
+                + " new Thread(() -> { try { Thread.sleep(60_000); } catch (InterruptedException e) { } }).start();"
+                + " System.out.println(\"leaked\"); } }", "");
+        assertThat(leak.statusId()).isEqualTo(JavaWorker.ACCEPTED);
+        assertThat(leak.stdout()).isEqualTo("leaked\n");
+        assertAccepted(pool.run(HELLO, ""));
+        assertThat(pool.stats()).containsEntry("started", 4L).containsEntry("recycled", 3L).containsEntry("enabled", true);
+    }
+
+    @Test
+    void stdinReachesTheSubmissionAndCompileErrorsKeepTheWorker() throws Exception {
+        JavaWorkerPool.Run echo = pool.run("import java.util.Scanner; public class Main { public static void main(String[] a) {"
+                + " System.out.println(new Scanner(System.in).nextInt() * 2); } }", "21");
+        assertThat(echo.stdout()).isEqualTo("42\n");
+
+        JavaWorkerPool.Run broken = pool.run("public class Main { void f() { undefined(); } }", "");
+        assertThat(broken.statusId()).isEqualTo(JavaWorker.COMPILATION_ERROR);
+        assertThat(broken.compileOutput()).contains("undefined");
+
+        assertAccepted(pool.run(HELLO, ""));
+        assertThat(pool.stats()).containsEntry("started", 1L).containsEntry("recycled", 0L);
+    }
+
+    private static void assertAccepted(JavaWorkerPool.Run run) {
+        assertThat(run).isNotNull();
+        assertThat(run.statusId()).as("status of %s", run).isEqualTo(JavaWorker.ACCEPTED);
+        assertThat(run.stdout()).isEqualTo("hello\n");
+    }
+}
@@ -0,0 +1,101 @@
+package com.learnforge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnforge.model.ArenaRoom;
+import com.learnforge.repository.ArenaRoomStateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+// Every repository call commits on its own, like the store's calls on separate nodes would
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:arena;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class JpaArenaRoomStoreTest {
+
+    @Autowired
+    private ArenaRoomStateRepository repository;
+
+    private JpaArenaRoomStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JpaArenaRoomStore(repository, mock(QuestionBank.class), new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void getOrCreateStoresTheRoomSoRacingNodesShareIt() {
+        ArenaRoom first = store.getOrCreate("r1");
+        ArenaRoom second = store.getOrCreate("r1");
+
+        assertThat(first.getStoreRevision()).isNotNull();
+        assertThat(second.getStoreRevision()).isEqualTo(first.getStoreRevision());
+        assertThat(first.getRound()).isEqualTo(1);
+        assertThat(first.getQuestionIndex()).isEqualTo(-1);
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void saveFromAStaleCopyFails() {
+        ArenaRoom nodeA = store.getOrCreate("r1");
+        ArenaRoom nodeB = store.getOrCreate("r1");
+
+        nodeA.addPlayer("alice");
+        store.save(nodeA);
+        nodeB.addPlayer("bob");
+
+        assertThatThrownBy(() -> store.save(nodeB)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(store.get("r1").getPlayers()).containsExactly("alice");
+    }
+
+    @Test
+    void savedCopyCanBeSavedAgain() {
+        ArenaRoom room = store.getOrCreate("r1");
+        room.addPlayer("alice");
+        store.save(room);
+        room.addPlayer("bob");
+        store.save(room);
+
+        ArenaRoom loaded = store.get("r1");
+        assertThat(loaded.getPlayers()).containsExactlyInAnyOrder("alice", "bob");
+        assertThat(loaded.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void removeFromAStaleCopyKeepsAPlayerWhoJoinedElsewhere() {
+        ArenaRoom nodeA = store.getOrCreate("r1");
+        nodeA.addPlayer("alice");
+        store.save(nodeA);
+        ArenaRoom nodeB = store.get("r1");
+
+        nodeB.addPlayer("bob");
+        store.save(nodeB);
+        nodeA.removePlayer("alice");
+
+        assertThatThrownBy(() -> store.remove(nodeA)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(store.get("r1").getPlayers()).containsExactlyInAnyOrder("alice", "bob");
+    }
+}
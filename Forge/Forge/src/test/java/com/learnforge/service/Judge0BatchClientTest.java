@@ -0,0 +1,165 @@
+package com.learnforge.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// No ticker runs here; each test drives the poll loop through pollDue
+class Judge0BatchClientTest {
+
+    private static final String ACCEPTED = "{\"token\":\"%s\",\"status\":{\"id\":3,\"description\":\"Accepted\"},\"stdout\":\"%s\"}";
+    private static final String PROCESSING = "{\"token\":\"%s\",\"status\":{\"id\":2,\"description\":\"Processing\"}}";
+
+    private final Judge0BatchClient client = new Judge0BatchClient();
+
+    // What the stub answers: the token list for each submit call, and a state per token for polls
+    private final List<String> submitResponses = new CopyOnWriteArrayList<>();
+    private final Map<String, String> states = new ConcurrentHashMap<>();
+    private final AtomicInteger submits = new AtomicInteger();
+    private final List<List<String>> polls = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder().exchangeFunction(this::exchange).build();
+        ReflectionTestUtils.setField(client, "webClient", webClient);
+        ReflectionTestUtils.setField(client, "batchSize", 3);
+        ReflectionTestUtils.setField(client, "submitWindowMillis", 60_000L);
+        ReflectionTestUtils.setField(client, "initialPollMillis", 100L);
+        ReflectionTestUtils.setField(client, "maxPollMillis", 300L);
+        ReflectionTestUtils.setField(client, "pollTimeoutMillis", 60_000L);
+    }
+
+    @Test
+    void fullBatchIsSubmittedInOneCallAndPolledInOne() throws Exception {
+        submitResponses.add("[{\"token\":\"a\"},{\"token\":\"b\"},{\"token\":\"c\"}]");
+        states.put("a", ACCEPTED.formatted("a", "1"));
+        states.put("b", PROCESSING.formatted("b"));
+        states.put("c", ACCEPTED.formatted("c", "3"));
+
+        CompletableFuture<Map<String, Object>> a = client.run(Map.of("source_code", "1"));
+        CompletableFuture<Map<String, Object>> b = client.run(Map.of("source_code", "2"));
+        CompletableFuture<Map<String, Object>> c = client.run(Map.of("source_code", "3"));
+        assertThat(submits).hasValue(1);
+
+        client.pollDue(System.currentTimeMillis() + 1_000);
+
+        assertThat(polls).hasSize(1);
+        assertThat(polls.get(0)).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(a.get(1, TimeUnit.SECONDS)).containsEntry("stdout", "1");
+        assertThat(c.get(1, TimeUnit.SECONDS)).containsEntry("stdout", "3");
+        assertThat(b).isNotDone();
+        assertThat(client.stats()).containsEntry("pending", 1).containsEntry("submitCalls", 1L);
+    }
+
+    @Test
+    void submissionWithoutATokenFailsAlone() throws Exception {
+        ReflectionTestUtils.setField(client, "batchSize", 2);
+        submitResponses.add("[{\"token\":\"a\"},{\"error\":\"language not supported\"}]");
+
+        CompletableFuture<Map<String, Object>> accepted = client.run(Map.of("source_code", "1"));
+        CompletableFuture<Map<String, Object>> rejected = client.run(Map.of("source_code", "2"));
+
+        assertThatThrownBy(() -> rejected.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("Failed to get submission token");
+        assertThat(accepted).isNotDone();
+        assertThat(client.stats()).containsEntry("pending", 1);
+    }
+
+    @Test
+    void failedSubmitCallFailsTheWholeBatch() {
+        ReflectionTestUtils.setField(client, "batchSize", 2);
+
+        CompletableFuture<Map<String, Object>> first = client.run(Map.of("source_code", "1"));
+        CompletableFuture<Map<String, Object>> second = client.run(Map.of("source_code", "2"));
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second).isCompletedExceptionally();
+        assertThat(client.stats()).containsEntry("pending", 0);
+    }
+
+    @Test
+    void tokenPastItsDeadlineTimesOutWithoutAPoll() {
+        ReflectionTestUtils.setField(client, "batchSize", 1);
+        ReflectionTestUtils.setField(client, "pollTimeoutMillis", 1_000L);
+        submitResponses.add("[{\"token\":\"a\"}]");
+        states.put("a", PROCESSING.formatted("a"));
+
+        CompletableFuture<Map<String, Object>> result = client.run(Map.of("source_code", "1"));
+        client.pollDue(System.currentTimeMillis() + 2_000);
+
+        assertThatThrownBy(() -> result.get(1, TimeUnit.SECONDS)).hasMessageContaining("Submission timed out");
+        assertThat(polls).isEmpty();
+        assertThat(client.stats()).containsEntry("pending", 0);
+    }
+
+    @Test
+    void unfinishedTokenBacksOffUpToTheCap() {
+        ReflectionTestUtils.setField(client, "batchSize", 1);
+        submitResponses.add("[{\"token\":\"a\"}]");
+        states.put("a", PROCESSING.formatted("a"));
+
+        long before = System.currentTimeMillis();
+        client.run(Map.of("source_code", "1"));
+        long after = System.currentTimeMillis();
+
+        // 100 ms first, then 150, 225 and the 300 ms cap. The stub answers inline, so each wait
+        // starts somewhere between the two clock reads around the call that scheduled it
+        List<Long> delays = List.of(100L, 150L, 225L, 300L, 300L);
+        for (int i = 0; i < delays.size(); i++) {
+            client.pollDue(before + delays.get(i) - 1);
+            assertThat(polls).as("polled before %d ms passed", delays.get(i)).hasSize(i);
+
+            long polledFrom = System.currentTimeMillis();
+            client.pollDue(after + delays.get(i));
+            after = System.currentTimeMillis();
+            before = polledFrom;
+            assertThat(polls).hasSize(i + 1);
+        }
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request) {
+        if (request.method() == HttpMethod.POST) {
+            submits.incrementAndGet();
+            String body = submitResponses.isEmpty() ? null : submitResponses.remove(0);
+            return body == null
+                    ? Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build())
+                    : Mono.just(json(body));
+        }
+        String tokens = UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().getFirst("tokens");
+        List<String> asked = List.of(UriUtils.decode(tokens, StandardCharsets.UTF_8).split(","));
+        polls.add(asked);
+        List<String> results = asked.stream().map(states::get).toList();
+        return Mono.just(json("{\"submissions\":[" + String.join(",", results) + "]}"));
+    }
+
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}
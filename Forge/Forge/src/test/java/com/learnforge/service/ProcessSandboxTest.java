@@ -0,0 +1,91 @@
+package com.learnforge.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ProcessSandboxTest {
+
+    private ProcessSandbox sandbox;
+
+    @AfterEach
+    void tearDown() {
+        if (sandbox != null) {
+            sandbox.close();
+        }
+    }
+
+    @Test
+    void refusesToStartWithoutIsolationUnlessAllowed() {
+        assertThatThrownBy(() -> new ProcessSandbox(1, 61000, 16, List.of(), List.of(), "none", false, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("execution.local.allow-unsandboxed");
+    }
+
+    @Test
+    void unsandboxedRunsWithoutACgroupStillGetAProcessCap() {
+        sandbox = new ProcessSandbox(1, 61000, 16, List.of(), List.of(), "none", true, false);
+
+        assertThat(sandbox.cgroup(0)).isNull();
+        assertThat(sandbox.limits("-t 1")).matches("ulimit -t 1 -u \\d+ && exec ");
+    }
+
+    @Test
+    void slotCgroupCapsProcessesAndReleaseKillsWhatTheRunLeftBehind() throws Exception {
+        sandbox = new ProcessSandbox(1, 61000, 16, List.of(), List.of(), "auto", true, false);
+        assumeTrue(sandbox.cgroup(0) != null, "no writable pids cgroup");
+        assertThat(Files.readString(sandbox.cgroup(0).resolve("pids.max")).trim()).isEqualTo("16");
+        assertThat(sandbox.limits("-t 1")).isEqualTo("ulimit -t 1 && exec ");
+
+        int slot = sandbox.acquire();
+        long leaked = Long.parseLong(run(slot, "sleep 60 >/dev/null 2>&1 & echo $!"));
+        assertThat(running(leaked)).isTrue();
+
+        sandbox.release(slot);
+
+        assertThat(Files.readString(sandbox.cgroup(0).resolve("cgroup.procs"))).isEmpty();
+        assertThat(running(leaked)).isFalse();
+    }
+
+    @Test
+    void isolatedRunGetsTheSlotsUid() throws Exception {
+        sandbox = new ProcessSandbox(2, 61000, 16, List.of(), List.of(), "none", false);
+        assumeTrue(sandbox.isIsolated(), "not root or unshare/setpriv missing");
+
+        int slot = sandbox.acquire();
+        try {
+            assertThat(run(slot, "id -u")).isEqualTo(String.valueOf(61000 + slot));
+        } finally {
+            sandbox.release(slot);
+        }
+    }
+
+    // An orphan that was killed may linger as a zombie until whatever adopted it reaps it
+    private static boolean running(long pid) throws IOException {
+        Path stat = Path.of("/proc", String.valueOf(pid), "stat");
+        if (!Files.exists(stat)) {
+            return false;
+        }
+        String fields = Files.readString(stat);
+        return fields.charAt(fields.lastIndexOf(')') + 2) != 'Z';
+    }
+
+    private String run(int slot, String script) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(sandbox.command(slot, script))
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        String out = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertThat(process.waitFor(10, TimeUnit.SECONDS)).isTrue();
+        return out;
+    }
+}
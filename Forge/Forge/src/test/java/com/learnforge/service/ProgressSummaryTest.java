@@ -0,0 +1,108 @@
+package com.learnforge.service;
+
+import com.learnforge.entity.Course;
+import com.learnforge.entity.Lesson;
+import com.learnforge.entity.Progress;
+import com.learnforge.entity.User;
+import com.learnforge.repository.CourseRepository;
+import com.learnforge.repository.LessonRepository;
+import com.learnforge.repository.ProgressRepository;
+import com.learnforge.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProgressService.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:progress;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class ProgressSummaryTest {
+
+    @MockBean
+    private UserStreakService streakService;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Test
+    void summaryCountsLessonsOfTheUsersCoursesOnly() {
+        User user = userRepository.save(new User("Alice", "alice@example.com", "local", null, null));
+        Course done = course(2);
+        Course started = course(3);
+        course(5);
+
+        progress(user, done, 1, 2);
+        progress(user, started, 7);
+
+        Map<String, Object> summary = progressService.getProgressSummary(user.getUserId());
+
+        assertThat(summary)
+                .containsEntry("totalCourses", 2)
+                .containsEntry("completedCourses", 1)
+                .containsEntry("totalLessons", 5)
+                .containsEntry("completedLessons", 3)
+                .containsEntry("overallProgress", 60.0);
+    }
+
+    @Test
+    void userWithoutProgressGetsAnEmptySummary() {
+        User user = userRepository.save(new User("Bob", "bob@example.com", "local", null, null));
+
+        assertThat(progressService.getProgressSummary(user.getUserId()))
+                .containsEntry("totalCourses", 0)
+                .containsEntry("totalLessons", 0);
+        assertThatThrownBy(() -> progressService.getProgressSummary("nobody"))
+                .hasMessage("User not found");
+    }
+
+    private Course course(int lessons) {
+        Course course = new Course();
+        course.setCourseTitle("Course");
+        course = courseRepository.save(course);
+        for (int i = 0; i < lessons; i++) {
+            Lesson lesson = new Lesson();
+            lesson.setLessonName("Lesson " + i);
+            lesson.setVideoUrl("https://example.com/" + i);
+            lesson.setCourse(course);
+            lessonRepository.save(lesson);
+        }
+        return course;
+    }
+
+    private void progress(User user, Course course, Integer... completed) {
+        Progress progress = new Progress();
+        progress.setUser(user);
+        progress.setCourse(course);
+        progress.setCompletedLessons(new HashSet<>(Set.of(completed)));
+        progressRepository.save(progress);
+    }
+}
@@ -0,0 +1,45 @@
+package com.learnforge.service;
+
+import com.learnforge.model.Question;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionImportServiceTest {
+
+    @Test
+    void validQuestionPasses() {
+        assertThat(QuestionImportService.validate(question())).isNull();
+    }
+
+    @Test
+    void everyColumnIsCheckedAgainstItsLength() {
+        Question explanation = question();
+        explanation.setExplanation("x".repeat(256));
+        assertThat(QuestionImportService.validate(explanation)).isEqualTo("explanation longer than 255 characters");
+
+        Question option = question();
+        option.setOptionC("x".repeat(1001));
+        assertThat(QuestionImportService.validate(option)).isEqualTo("option C longer than 1000 characters");
+
+        Question topic = question();
+        topic.setTopic("x".repeat(256));
+        assertThat(QuestionImportService.validate(topic)).isEqualTo("topic longer than 255 characters");
+
+        Question atLimit = question();
+        atLimit.setSubtopic("x".repeat(255));
+        atLimit.setOptionD("x".repeat(1000));
+        assertThat(QuestionImportService.validate(atLimit)).isNull();
+    }
+
+    private static Question question() {
+        Question q = new Question();
+        q.setQuestionText("What does JVM stand for?");
+        q.setOptionA("Java Virtual Machine");
+        q.setOptionB("Just Very Modern");
+        q.setCorrectAnswer("Java Virtual Machine");
+        q.setTopic("Java");
+        q.setDifficulty("easy");
+        return q;
+    }
+}
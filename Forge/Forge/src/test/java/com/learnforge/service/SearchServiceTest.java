@@ -0,0 +1,49 @@
+package com.learnforge.service;
+
+import com.learnforge.dto.SearchResponse;
+import com.learnforge.entity.Course;
+import com.learnforge.repository.CourseRepository;
+import com.learnforge.repository.LessonRepository;
+import com.learnforge.repository.QuestionRepository;
+import com.learnforge.repository.ResourceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class SearchServiceTest {
+
+    private final SearchService service = new SearchService(mock(CourseRepository.class),
+            mock(LessonRepository.class), mock(ResourceRepository.class), mock(QuestionRepository.class));
+
+    SearchServiceTest() {
+        for (long id = 1; id <= 3; id++) {
+            Course course = new Course();
+            course.setCourseId(id);
+            course.setCourseTitle("Java " + id);
+            service.indexCourse(course);
+        }
+    }
+
+    @Test
+    void pagePastTheLastHitIsEmpty() {
+        SearchResponse response = service.search("java", null, 1, 20);
+
+        assertThat(response.getHits()).isEmpty();
+        assertThat(response.getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void pagesBeyondTheResultCapAreABadRequest() {
+        assertThat(service.search("java", null, SearchService.MAX_RESULTS / 50 - 1, 50).getHits()).isEmpty();
+
+        for (int page : new int[]{SearchService.MAX_RESULTS / 50, 107374183, Integer.MAX_VALUE}) {
+            assertThatThrownBy(() -> service.search("java", null, page, 50))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.learnforge.service;
+
+import com.learnforge.model.ArenaResult;
+import com.learnforge.repository.UserSeenQuestionsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The listener runs after the submission commits, so the test must commit for real
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SeenQuestionService.class, SeenQuestionPersistenceTest.Loader.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seen;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class SeenQuestionPersistenceTest {
+
+    @TestConfiguration
+    static class Loader {
+        @Bean(destroyMethod = "shutdown")
+        ExecutorService seenQuestionLoader() {
+            return Executors.newSingleThreadExecutor();
+        }
+    }
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserSeenQuestionsRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void seenSetIsSavedAfterTheSubmissionCommits() {
+        ArenaResult result = new ArenaResult();
+        result.setUserId("alice");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                publisher.publishEvent(new ArenaResultRecordedEvent(result, 10, Map.of(7L, true, 42L, false))));
+
+        assertThat(repository.findById("alice")).isPresent();
+    }
+
+    @Test
+    void rolledBackSubmissionSavesNothing() {
+        ArenaResult result = new ArenaResult();
+        result.setUserId("bob");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            publisher.publishEvent(new ArenaResultRecordedEvent(result, 10, Map.of(7L, true)));
+            status.setRollbackOnly();
+        });
+
+        assertThat(repository.findById("bob")).isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package com.learnforge.service;
+
+import com.learnforge.entity.UserSeenQuestions;
+import com.learnforge.repository.UserSeenQuestionsRepository;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeenQuestionServiceTest {
+
+    private final UserSeenQuestionsRepository repository = mock(UserSeenQuestionsRepository.class);
+    private final ExecutorService loader = mock(ExecutorService.class);
+    private final List<Runnable> queued = new ArrayList<>();
+    private final SeenQuestionService service = new SeenQuestionService(repository, loader, 100);
+
+    SeenQuestionServiceTest() {
+        doAnswer(inv -> queued.add(inv.getArgument(0))).when(loader).execute(any());
+    }
+
+    @Test
+    void cacheMissReturnsEmptyAndLoadsInTheBackground() throws IOException {
+        when(repository.findById("alice")).thenReturn(Optional.of(new UserSeenQuestions("alice", bitmap(7, 42), null)));
+
+        assertThat(service.cachedSeen("alice").isEmpty()).isTrue();
+        assertThat(service.cachedSeen("alice").isEmpty()).isTrue();
+        verify(repository, never()).findById(any());
+        assertThat(queued).hasSize(1);
+
+        runQueued();
+        assertThat(service.cachedSeen("alice").toArray()).containsExactly(7, 42);
+        verify(repository, times(1)).findById("alice");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(repository.findById("nobody")).thenReturn(Optional.empty());
+
+        service.cachedSeen("nobody");
+        runQueued();
+        service.cachedSeen("nobody");
+
+        // Still a miss, so the next request queues another read rather than hitting a cached empty set
+        assertThat(queued).hasSize(1);
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static byte[] bitmap(int... ids) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(out)) {
+            RoaringBitmap.bitmapOf(ids).serialize(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,103 @@
+package com.learnforge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex<String> index = new InvertedIndex<>();
+
+    @Test
+    void titleMatchesOutrankBodyMatches() {
+        index.put("a", "body", "Collections", "java streams and lists");
+        index.put("b", "title", "Java basics", "variables and loops");
+        index.put("c", "other", "Python", "lists and dicts");
+
+        assertThat(docs(index.search("java", null, 0, 10))).containsExactly("title", "body");
+    }
+
+    @Test
+    void rarerTermsAndShorterDocumentsScoreHigher() {
+        index.put("short", "short", "intro", "heap notes");
+        index.put("long", "long", "intro", "heap " + "padding words ".repeat(20));
+        index.put("rare", "rare", "intro", "trie notes");
+
+        // "trie" is in one document and "heap" in two; the long document is diluted by its length
+        assertThat(docs(index.search("heap trie", null, 0, 10))).containsExactly("rare", "short", "long");
+    }
+
+    @Test
+    void prefixesMatchLongerTermsAtADiscount() {
+        index.put("exact", "exact", "sort", null);
+        index.put("longer", "longer", "sorting", null);
+
+        List<InvertedIndex.Hit<String>> hits = index.search("sort", null, 0, 10).hits();
+        assertThat(hits).extracting(InvertedIndex.Hit::doc).containsExactly("exact", "longer");
+        assertThat(hits.get(1).score()).isLessThan(hits.get(0).score());
+
+        // Single letters are too short to expand
+        assertThat(index.search("s", null, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void stopWordsAndSymbolsAreHandledByTheTokenizer() {
+        assertThat(InvertedIndex.tokenize("The C++ and C# of it")).containsExactly("c++", "c#");
+        assertThat(index.search("the of", null, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void filterNarrowsTheHitsAndTheTotal() {
+        index.put("1", "course:java", "Java", null);
+        index.put("2", "lesson:java", "Java loops", null);
+        index.put("3", "lesson:jvm", "Java memory", null);
+
+        InvertedIndex.Page<String> page = index.search("java", doc -> doc.startsWith("lesson:"), 0, 10);
+        assertThat(page.total()).isEqualTo(2);
+        assertThat(docs(page)).containsExactlyInAnyOrder("lesson:java", "lesson:jvm");
+    }
+
+    @Test
+    void pagesSplitTheRankingAndDeepOffsetsAreEmpty() {
+        for (int i = 0; i < 5; i++) {
+            index.put("k" + i, "d" + i, "java " + "x".repeat(i + 1), null);
+        }
+        List<String> all = docs(index.search("java", null, 0, 5));
+
+        assertThat(docs(index.search("java", null, 0, 2))).isEqualTo(all.subList(0, 2));
+        assertThat(docs(index.search("java", null, 2, 2))).isEqualTo(all.subList(2, 4));
+        InvertedIndex.Page<String> last = index.search("java", null, 4, 2);
+        assertThat(docs(last)).isEqualTo(all.subList(4, 5));
+        assertThat(last.total()).isEqualTo(5);
+
+        InvertedIndex.Page<String> past = index.search("java", null, 5, 2);
+        assertThat(past.hits()).isEmpty();
+        assertThat(past.total()).isEqualTo(5);
+        // offset + limit would overflow an int
+        assertThat(index.search("java", null, Integer.MAX_VALUE - 1, 50).hits()).isEmpty();
+    }
+
+    @Test
+    void replacedAndRemovedDocumentsLeaveNoStalePostings() {
+        index.put("a", "v1", "Kotlin", null);
+        index.put("a", "v2", "Scala", null);
+        assertThat(index.search("kotlin", null, 0, 10).total()).isZero();
+        assertThat(docs(index.search("scala", null, 0, 10))).containsExactly("v2");
+
+        index.put("b", "b", "Scala tips", null);
+        index.removeIf(key -> key.equals("a"));
+        index.remove("b");
+        assertThat(index.size()).isZero();
+        assertThat(index.search("scala", null, 0, 10).total()).isZero();
+
+        // Freed slots are reused without picking up old terms
+        index.put("c", "c", "Rust", null);
+        assertThat(docs(index.search("rust", null, 0, 10))).containsExactly("c");
+    }
+
+    private static List<String> docs(InvertedIndex.Page<String> page) {
+        return page.hits().stream().map(InvertedIndex.Hit::doc).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.learnforge.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void limitDefaultsAndIsClamped() {
+        assertThat(PageCursor.limit(null)).isEqualTo(PageCursor.DEFAULT_LIMIT);
+        assertThat(PageCursor.limit(0)).isEqualTo(1);
+        assertThat(PageCursor.limit(20)).isEqualTo(20);
+        assertThat(PageCursor.limit(100_000)).isEqualTo(PageCursor.MAX_LIMIT);
+    }
+
+    @Test
+    void cursorRoundTripsAndMissingCursorStartsAtZero() {
+        assertThat(PageCursor.decode(PageCursor.encode(42))).isEqualTo(42);
+        assertThat(PageCursor.decode(null)).isZero();
+        assertThat(PageCursor.decode(" ")).isZero();
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        String notBase64 = "%%%";
+        String noPrefix = Base64.getUrlEncoder().encodeToString("42".getBytes(StandardCharsets.UTF_8));
+        String notANumber = Base64.getUrlEncoder().encodeToString("k:abc".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of(notBase64, noPrefix, notANumber)) {
+            assertThatThrownBy(() -> PageCursor.decode(cursor))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    @Test
+    void respondTrimsTheExtraRowAndPointsPastThePage() {
+        ResponseEntity<List<Long>> more = PageCursor.respond(List.of(3L, 5L, 8L), 2, id -> id);
+        assertThat(more.getBody()).containsExactly(3L, 5L);
+        assertThat(PageCursor.decode(more.getHeaders().getFirst(PageCursor.HEADER))).isEqualTo(5);
+
+        ResponseEntity<List<Long>> last = PageCursor.respond(List.of(3L, 5L), 2, id -> id);
+        assertThat(last.getBody()).containsExactly(3L, 5L);
+        assertThat(last.getHeaders().containsKey(PageCursor.HEADER)).isFalse();
+    }
+}
@@ -0,0 +1,62 @@
+package com.learnforge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTrieTest {
+
+    @Test
+    void everyNodeKeepsItsHeaviestValuesInOrder() {
+        PrefixTrie<String> trie = PrefixTrie.build(List.of(
+                entry("java", 1, "java"),
+                entry("javascript", 5, "javascript"),
+                entry("jvm", 3, "jvm"),
+                entry("julia", 2, "julia")), 2);
+
+        assertThat(trie.top("j", 10)).containsExactly("javascript", "jvm");
+        assertThat(trie.top("ja", 10)).containsExactly("javascript", "java");
+        assertThat(trie.top("ja", 1)).containsExactly("javascript");
+        assertThat(trie.top("jav", 10)).containsExactly("javascript", "java");
+        assertThat(trie.top("x", 10)).isEmpty();
+        assertThat(trie.top("javas", 10)).containsExactly("javascript");
+    }
+
+    @Test
+    void valueWithSeveralKeysIsFoundFromEachAndListedOnce() {
+        PrefixTrie<String> trie = PrefixTrie.build(List.of(
+                entry("Data Structures", 2, "data structures", "structures"),
+                entry("Dynamic Programming", 1, "dynamic programming", "programming")), 10);
+
+        assertThat(trie.top("struct", 10)).containsExactly("Data Structures");
+        assertThat(trie.top("prog", 10)).containsExactly("Dynamic Programming");
+        // The root is passed by both keys of each value
+        assertThat(trie.top("", 10)).containsExactly("Data Structures", "Dynamic Programming");
+    }
+
+    @Test
+    void keysAndPrefixesAreNormalized() {
+        PrefixTrie<String> trie = PrefixTrie.build(List.of(entry("ds", 1, "Data   Structures")), 10);
+
+        assertThat(trie.top("  DATA s", 10)).containsExactly("ds");
+    }
+
+    @Test
+    void keysAreCutAtMaxDepth() {
+        String longKey = "a".repeat(PrefixTrie.MAX_DEPTH) + "bcd";
+        PrefixTrie<String> trie = PrefixTrie.build(List.of(
+                entry("long", 2, longKey),
+                entry("other", 1, "a".repeat(PrefixTrie.MAX_DEPTH) + "xyz")), 10);
+
+        // Past MAX_DEPTH both keys share the last node, so longer prefixes cannot tell them apart
+        assertThat(trie.top(longKey, 10)).containsExactly("long", "other");
+        assertThat(trie.top("a".repeat(PrefixTrie.MAX_DEPTH - 1) + "b", 10)).isEmpty();
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    private static PrefixTrie.Entry<String> entry(String value, double weight, String... keys) {
+        return new PrefixTrie.Entry<>(value, weight, List.of(keys));
+    }
+}
@@ -0,0 +1,40 @@
+package com.learnforge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollingScoreWindowTest {
+
+    private final LocalDate today = LocalDate.now();
+    private final RollingScoreWindow window = new RollingScoreWindow(7);
+
+    @Test
+    void zeroScoreIsRankedAtTheBottom() {
+        window.add("alice", 30, today);
+        window.add("bob", 0, today);
+
+        RankedScoreBoard board = window.board();
+        assertThat(board.top(10)).containsExactly(
+                new RankedScoreBoard.Entry("alice", 30), new RankedScoreBoard.Entry("bob", 0));
+        assertThat(board.rank("bob")).hasValue(2);
+    }
+
+    @Test
+    void usersLeaveOnlyWhenAllTheirDaysExpire() {
+        window.add("alice", 30, today.minusDays(6));
+        window.add("alice", 0, today);
+        window.add("bob", 20, today.minusDays(6));
+
+        window.expire(today.plusDays(1));
+
+        RankedScoreBoard board = window.board();
+        assertThat(board.score("alice")).hasValue(0);
+        assertThat(board.score("bob")).isEmpty();
+
+        window.expire(today.plusDays(7));
+        assertThat(board.size()).isZero();
+    }
+}
@@ -1,6 +1,7 @@
 import React, { createContext, useState, useEffect, useContext } from 'react';
 import { useAuth } from './AuthContext';
 import axios from 'axios';
+import ApiService from '../services/api';
 
 const ProgressContext = createContext();
 
@@ -38,8 +39,7 @@ export const ProgressProvider = ({ children }) => {
             setLoading(true);
             console.log('📡 Fetching all progress for user:', user.userId);
 
-            const response = await axios.get(`${API_BASE_URL}/progress/user/${user.userId}`);
-            const allProgress = response.data;
+            const allProgress = await ApiService.getAllPages(`${API_BASE_URL}/progress/user/${user.userId}`);
 
             console.log('✅ Progress loaded:', allProgress);
 
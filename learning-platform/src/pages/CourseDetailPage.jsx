@@ -89,10 +89,9 @@ const CourseDetailPage = ({ setCurrentPage }) => {
     const fetchLessonResources = async (lessonId) => {
         setResourcesLoading(true);
         try {
-            const response = await axios.get(
+            const data = await ApiService.getAllPages(
                 `${API_BASE_URL}/courses/${id}/lessons/${lessonId}/resources`
             );
-            const data = response.data;
 
             if (data.length === 0) {
                 console.log('⚠️ No resources found, auto-fetching...');
@@ -3,15 +3,27 @@ const API_BASE_URL = 'http://localhost:8080/api';
 
 class ApiService {
 
-    async getAllCourses() {
-        try {
-            const response = await fetch(`${API_BASE_URL}/courses`, {
-                credentials: 'include'
-            });
+    // List endpoints return one page at a time; follow X-Next-Cursor until the last page
+    async getAllPages(url, options = {}) {
+        const items = [];
+        let cursor = null;
+        do {
+            const pageUrl = cursor
+                ? `${url}${url.includes('?') ? '&' : '?'}cursor=${encodeURIComponent(cursor)}`
+                : url;
+            const response = await fetch(pageUrl, { credentials: 'include', ...options });
             if (!response.ok) {
                 throw new Error(`HTTP error! status: ${response.status}`);
             }
-            return response.json();
+            items.push(...(await response.json()));
+            cursor = response.headers.get('X-Next-Cursor');
+        } while (cursor);
+        return items;
+    }
+
+    async getAllCourses() {
+        try {
+            return await this.getAllPages(`${API_BASE_URL}/courses`);
         } catch (error) {
             console.error('❌ Error fetching courses:', error);
             return [];
@@ -153,19 +165,7 @@ class ApiService {
     async getLessonsByCourse(courseId) {
         try {
             console.log('🎯 ApiService: Fetching lessons for course:', courseId);
-            const response = await fetch(`${API_BASE_URL}/courses/${courseId}/lessons`, {
-                method: 'GET',
-                credentials: 'include',
-                headers: {
-                    'Content-Type': 'application/json',
-                },
-            });
-
-            if (!response.ok) {
-                throw new Error(`HTTP error! status: ${response.status}`);
-            }
-
-            const lessons = await response.json();
+            const lessons = await this.getAllPages(`${API_BASE_URL}/courses/${courseId}/lessons`);
             console.log('✅ ApiService: Found lessons:', lessons);
             return lessons;
         } catch (error) {
@@ -205,19 +205,9 @@ class ApiService {
     async getResourcesByLesson(courseId, lessonId) {
         try {
             console.log('🎯 ApiService: Fetching resources for lesson:', lessonId);
-            const response = await fetch(`${API_BASE_URL}/courses/${courseId}/lessons/${lessonId}/resources`, {
-                method: 'GET',
-                credentials: 'include',
-                headers: {
-                    'Content-Type': 'application/json',
-                },
-            });
-
-            if (!response.ok) {
-                throw new Error(`HTTP error! status: ${response.status}`);
-            }
-
-            const resources = await response.json();
+            const resources = await this.getAllPages(
+                `${API_BASE_URL}/courses/${courseId}/lessons/${lessonId}/resources`
+            );
             console.log('✅ ApiService: Found resources:', resources);
             return resources;
         } catch (error) {
@@ -1,4 +1,5 @@
 import axios from 'axios';
+import ApiService from './api';
 
 const API_BASE_URL = 'http://localhost:8080/api';
 // const API_BASE_URL = 'https://learnforge.onrender.com/api';
@@ -20,10 +21,7 @@ class ProgressService {
   // Get all progress for a user
   async getAllUserProgress(userId) {
     try {
-      const response = await axios.get(
-        `${API_BASE_URL}/progress/user/${userId}`
-      );
-      return response.data;
+      return await ApiService.getAllPages(`${API_BASE_URL}/progress/user/${userId}`);
     } catch (error) {
       console.error('Error fetching all progress:', error);
       return [];